@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.SQLException;
+import java.sql.Types;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Builds synthetic in-memory result sets, so the mapping benchmarks measure the framework and not
+ * a driver.
+ *
+ * @author Gabriel Giordano
+ */
+final class BenchmarkRows {
+
+  static final String[] COUNTRIES = {"BRA", "USA", "NLD", "JPN", "ARG", "DEU", "FRA", "CHN"};
+
+  private BenchmarkRows() {}
+
+  /**
+   * Returns the given number of rows of the <tt>city</tt> table, positioned before the first one.
+   */
+  static CachedRowSet cities(final int rows) throws SQLException {
+    final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+    metaData.setColumnCount(5);
+
+    describe(metaData, 1, "ID", Types.INTEGER);
+    describe(metaData, 2, "Name", Types.VARCHAR);
+    describe(metaData, 3, "CountryCode", Types.CHAR);
+    describe(metaData, 4, "District", Types.VARCHAR);
+    describe(metaData, 5, "Population", Types.INTEGER);
+
+    final CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+    rowSet.setMetaData(metaData);
+
+    for (int row = 1; row <= rows; ++row) {
+      rowSet.moveToInsertRow();
+      rowSet.updateInt(1, row);
+      rowSet.updateString(2, "City " + row);
+      rowSet.updateString(3, COUNTRIES[row % COUNTRIES.length]);
+      rowSet.updateString(4, "District " + row % 50);
+      rowSet.updateInt(5, 1000 + row * 7);
+      rowSet.insertRow();
+    }
+
+    rowSet.moveToCurrentRow();
+    rowSet.beforeFirst();
+
+    return rowSet;
+  }
+
+  private static void describe(final RowSetMetaDataImpl metaData, final int index,
+      final String column, final int type) throws SQLException {
+    metaData.setColumnName(index, column);
+    metaData.setColumnLabel(index, column);
+    metaData.setColumnType(index, type);
+    metaData.setTableName(index, "city");
+  }
+}
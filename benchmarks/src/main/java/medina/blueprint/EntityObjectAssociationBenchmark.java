@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import medina.blueprint.AbstractEntity.ObjectScope;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the ordering of the associations the engine fills after a query, per association.
+ *
+ * @author Gabriel Giordano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityObjectAssociationBenchmark {
+
+  private static final int ASSOCIATIONS = 1000;
+
+  private List<EntityObjectAssociation> stringKeys;
+  private List<EntityObjectAssociation> intKeys;
+
+  @Setup
+  public void setup() {
+    final ObjectScope country =
+        SessionManager.getEntity(BenchmarkCity.class).getEntityObjects().iterator().next();
+    final Random random = new Random(42);
+
+    stringKeys = new ArrayList<>(ASSOCIATIONS);
+    intKeys = new ArrayList<>(ASSOCIATIONS);
+
+    for (int index = 0; index < ASSOCIATIONS; ++index) {
+      final String code = BenchmarkRows.COUNTRIES[random.nextInt(BenchmarkRows.COUNTRIES.length)];
+
+      stringKeys.add(new EntityObjectAssociation(new BenchmarkCity(), code, country));
+      intKeys.add(new EntityObjectAssociation(new BenchmarkCity(), random.nextInt(200), country));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ASSOCIATIONS)
+  public EntityObjectAssociation priorityQueueStringKeys() {
+    return drain(new PriorityQueue<>(stringKeys));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ASSOCIATIONS)
+  public EntityObjectAssociation priorityQueueIntKeys() {
+    return drain(new PriorityQueue<>(intKeys));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ASSOCIATIONS)
+  public List<EntityObjectAssociation> sortStringKeys() {
+    final List<EntityObjectAssociation> sorted = new ArrayList<>(stringKeys);
+    Collections.sort(sorted);
+
+    return sorted;
+  }
+
+  private static EntityObjectAssociation drain(final PriorityQueue<EntityObjectAssociation> queue) {
+    EntityObjectAssociation last = null;
+
+    while (!queue.isEmpty()) {
+      last = queue.poll();
+    }
+
+    return last;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+
+import medina.blueprint.AbstractEntity.ObjectScope;
+import medina.blueprint.AbstractEntity.Variable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the mapping of rows to entities by the {@link ResultSetTranslator}, per row.
+ *
+ * @author Gabriel Giordano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetTranslatorBenchmark {
+
+  private static final int ROWS = 1000;
+
+  private CachedRowSet rowSet;
+  private ResultSetTranslator translator;
+  private Entity entity;
+
+  @Setup
+  public void setup() throws SQLException {
+    rowSet = BenchmarkRows.cities(ROWS);
+    translator = new ResultSetTranslator();
+    entity = SessionManager.getEntity(BenchmarkCity.class);
+
+    translator.prepare(rowSet, "SELECT * FROM city");
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void translateColumns(final Blackhole blackhole) throws Exception {
+    rowSet.beforeFirst();
+
+    while (rowSet.next()) {
+      final BenchmarkCity city = new BenchmarkCity();
+
+      translator.translate(entity.getIdentity(), city);
+
+      for (final Variable column : entity.getColumns()) {
+        if (translator.hasColumn(column.label)) {
+          translator.translate(column, city);
+        }
+      }
+
+      blackhole.consume(city);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void translateAssociations(final Blackhole blackhole) throws Exception {
+    rowSet.beforeFirst();
+
+    while (rowSet.next()) {
+      final BenchmarkCity city = new BenchmarkCity();
+
+      translator.translate(entity.getIdentity(), city);
+
+      for (final ObjectScope object : entity.getEntityObjects()) {
+        blackhole.consume(translator.tranlateToAssociation(object, city));
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.concurrent.TimeUnit;
+
+import medina.blueprint.type.EnumType;
+import medina.blueprint.type.SetType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of a {@link SetType} from and to its <tt>SET</tt> column value.
+ *
+ * @author Gabriel Giordano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetTypeBenchmark {
+
+  private static final String VALUES = "Trailers,Commentaries,Deleted Scenes,Behind the Scenes";
+
+  private SetType<Feature> features;
+
+  @Setup
+  public void setup() {
+    features = new SetType<>(Feature.class);
+    features.addByComma(VALUES);
+  }
+
+  @Benchmark
+  public SetType<Feature> addByComma() {
+    final SetType<Feature> set = new SetType<>(Feature.class);
+    set.addByComma(VALUES);
+
+    return set;
+  }
+
+  @Benchmark
+  public String getAllValues() {
+    return features.getAllValues();
+  }
+
+  /**
+   * The special features of a film in the <tt>sakila</tt> database.
+   */
+  public enum Feature implements EnumType {
+
+    TRAILERS("Trailers"), COMMENTARIES("Commentaries"), DELETED_SCENES("Deleted Scenes"),
+    BEHIND_THE_SCENES("Behind the Scenes");
+
+    private final String value;
+
+    Feature(final String value) {
+      this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the generation of the CRUD statements by the {@link StatementTool}.
+ *
+ * @author Gabriel Giordano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementToolBenchmark {
+
+  private StatementTool<BenchmarkCity> tool;
+  private BenchmarkCity city;
+
+  @Setup
+  public void setup() {
+    tool = new StatementTool<BenchmarkCity>() {};
+
+    city = new BenchmarkCity();
+    city.id = 1;
+    city.name = "Rio de Janeiro";
+    city.district = "Rio de Janeiro";
+    city.population = 6320446;
+  }
+
+  @Benchmark
+  public String select() {
+    tool.select();
+    return tool.prepare();
+  }
+
+  @Benchmark
+  public String selectWhere(final Blackhole blackhole) {
+    tool.select();
+    blackhole.consume(tool.where(city));
+    return tool.prepare();
+  }
+
+  @Benchmark
+  public String selectPage(final Blackhole blackhole) {
+    tool.select();
+    tool.orderBy("ID");
+    blackhole.consume(tool.limit(20, 40));
+    return tool.prepare();
+  }
+
+  @Benchmark
+  public String insert(final Blackhole blackhole) {
+    blackhole.consume(tool.insert(city));
+    return tool.prepare();
+  }
+
+  @Benchmark
+  public String update(final Blackhole blackhole) {
+    blackhole.consume(tool.update(city));
+    blackhole.consume(tool.where(city));
+    return tool.prepare();
+  }
+
+  @Benchmark
+  public String delete(final Blackhole blackhole) {
+    tool.delete();
+    blackhole.consume(tool.where(city));
+    return tool.prepare();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the binding of placeholder values by the {@link StatementTranslator}, over a statement
+ * ignoring the values.
+ *
+ * @author Gabriel Giordano
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementTranslatorBenchmark {
+
+  private StatementTranslator translator;
+  private Collection<Object> key;
+  private Collection<Object> row;
+
+  @Setup
+  public void setup() {
+    translator = new StatementTranslator();
+    translator.setStatement((PreparedStatement) Proxy.newProxyInstance(
+        PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+        new InvocationHandler() {
+
+          @Override
+          public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            return null;
+          }
+
+        }));
+
+    key = new ArrayList<>();
+    key.add(42);
+
+    row = new ArrayList<>();
+    row.add("Rio de Janeiro");
+    row.add("BRA");
+    row.add("Rio de Janeiro");
+    row.add(6320446);
+    row.add(1L);
+    row.add(12.5d);
+    row.add(new BigDecimal("1234.56"));
+    row.add(true);
+  }
+
+  @Benchmark
+  public void translateKey() throws SQLException {
+    translator.translate(key);
+  }
+
+  @Benchmark
+  public void translateRow() throws SQLException {
+    translator.translate(row);
+  }
+}
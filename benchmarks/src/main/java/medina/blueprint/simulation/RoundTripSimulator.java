@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.simulation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Makes a local database behave like a remote one, by wrapping its connections, statements and
+ * result sets so every round trip waits a configured latency and is recorded.
+ *
+ * <p>
+ * Executing a statement, a batch, a commit or a rollback is a round trip waiting the execution
+ * latency. The rows of a result set arrive in blocks of the fetch size of its statement, the first
+ * one with the execution, and reading past a block is a round trip waiting the fetch latency. A
+ * fetch size of zero brings every row with the execution. The SQL of the executions is recorded up
+ * to a capacity, so tests can assert the statements an engine strategy sends.
+ * </p>
+ *
+ * <pre>
+ * RoundTripSimulator simulator = new RoundTripSimulator();
+ * simulator.setExecuteLatency(500, TimeUnit.MICROSECONDS);
+ * SimulatedDriver.install(simulator);
+ *
+ * ConnectionPool pool = new ConnectionPool("jdbc:simulated:jdbc:h2:mem:test", "sa", "", 1, 8);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see SimulatedDriver
+ */
+public final class RoundTripSimulator {
+
+  private volatile long executeLatency;
+  private volatile long fetchLatency;
+  private final int capacity;
+
+  private final LongAdder executions;
+  private final LongAdder fetches;
+  private final LongAdder transactions;
+  private final List<String> statements;
+
+  // Constructors____________________________________________________________________ //
+
+  public RoundTripSimulator() {
+    this(10000);
+  }
+
+  /**
+   * Creates a simulator without latency.
+   *
+   * @param capacity - the maximum of statements recorded.
+   */
+  public RoundTripSimulator(final int capacity) {
+    this.capacity = capacity;
+
+    executions = new LongAdder();
+    fetches = new LongAdder();
+    transactions = new LongAdder();
+    statements = new ArrayList<>();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public void setExecuteLatency(final long latency, final TimeUnit unit) {
+    this.executeLatency = unit.toNanos(latency);
+  }
+
+  public void setFetchLatency(final long latency, final TimeUnit unit) {
+    this.fetchLatency = unit.toNanos(latency);
+  }
+
+  public long getRoundTrips() {
+    return executions.sum() + fetches.sum() + transactions.sum();
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getFetches() {
+    return fetches.sum();
+  }
+
+  /**
+   * Returns the commits and rollbacks.
+   */
+  public long getTransactions() {
+    return transactions.sum();
+  }
+
+  /**
+   * Returns a copy of the recorded statements, in execution order.
+   */
+  public List<String> getStatements() {
+    synchronized (statements) {
+      return Collections.unmodifiableList(new ArrayList<>(statements));
+    }
+  }
+
+  public void reset() {
+    executions.reset();
+    fetches.reset();
+    transactions.reset();
+
+    synchronized (statements) {
+      statements.clear();
+    }
+  }
+
+  /**
+   * Wraps a connection of the local database.
+   *
+   * @param connection - the connection to wrap.
+   * @return a connection whose round trips are simulated.
+   */
+  public Connection wrap(final Connection connection) {
+    return proxy(Connection.class, connection, new ConnectionHandler(connection));
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void execute(final String sql) {
+    executions.increment();
+
+    if (sql != null) {
+      synchronized (statements) {
+        if (statements.size() < capacity) {
+          statements.add(sql);
+        }
+      }
+    }
+
+    await(executeLatency);
+  }
+
+  private void fetch() {
+    fetches.increment();
+    await(fetchLatency);
+  }
+
+  private void transact() {
+    transactions.increment();
+    await(executeLatency);
+  }
+
+  private static void await(final long nanos) {
+    if (nanos <= 0) {
+      return;
+    }
+
+    final long deadline = System.nanoTime() + nanos;
+    long remaining = nanos;
+
+    while (remaining > 0) {
+      LockSupport.parkNanos(remaining);
+      remaining = deadline - System.nanoTime();
+    }
+  }
+
+  private static <T> T proxy(final Class<T> type, final T target,
+      final InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(RoundTripSimulator.class.getClassLoader(),
+        new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(final Object target, final Method method, final Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static boolean isExecution(final String name) {
+    return name.startsWith("execute");
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection connection;
+
+    private ConnectionHandler(final Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      final String name = method.getName();
+
+      if (name.equals("commit") || name.equals("rollback")) {
+        transact();
+      }
+
+      final Object result = RoundTripSimulator.invoke(connection, method, args);
+
+      if (result instanceof CallableStatement) {
+        return proxy(CallableStatement.class, (CallableStatement) result,
+            new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+      }
+
+      if (result instanceof PreparedStatement) {
+        return proxy(PreparedStatement.class, (PreparedStatement) result,
+            new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+      }
+
+      if (result instanceof Statement) {
+        return proxy(Statement.class, (Statement) result,
+            new StatementHandler((Statement) result, (Connection) proxy, null));
+      }
+
+      return result;
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+
+    private final Statement statement;
+    private final Connection connection;
+    private final String sql;
+
+    private StatementHandler(final Statement statement, final Connection connection,
+        final String sql) {
+      this.statement = statement;
+      this.connection = connection;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      final String name = method.getName();
+
+      if (name.equals("getConnection")) {
+        return connection;
+      }
+
+      if (isExecution(name)) {
+        execute(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+            : sql);
+      }
+
+      final Object result = RoundTripSimulator.invoke(statement, method, args);
+
+      if (result instanceof ResultSet) {
+        return proxy(ResultSet.class, (ResultSet) result,
+            new ResultSetHandler((ResultSet) result, (Statement) proxy,
+                statement.getFetchSize()));
+      }
+
+      return result;
+    }
+  }
+
+  private final class ResultSetHandler implements InvocationHandler {
+
+    private final ResultSet resultSet;
+    private final Statement statement;
+    private final int fetchSize;
+    private long rows;
+
+    private ResultSetHandler(final ResultSet resultSet, final Statement statement,
+        final int fetchSize) {
+      this.resultSet = resultSet;
+      this.statement = statement;
+      this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      final String name = method.getName();
+
+      if (name.equals("getStatement")) {
+        return statement;
+      }
+
+      if (name.equals("next")) {
+        if (fetchSize > 0 && rows > 0 && rows % fetchSize == 0) {
+          fetch();
+        }
+
+        final Object next = RoundTripSimulator.invoke(resultSet, method, args);
+
+        if (Boolean.TRUE.equals(next)) {
+          ++rows;
+        }
+
+        return next;
+      }
+
+      return RoundTripSimulator.invoke(resultSet, method, args);
+    }
+  }
+}
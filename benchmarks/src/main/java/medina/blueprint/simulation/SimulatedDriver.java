@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.simulation;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * A JDBC driver for the <tt>jdbc:simulated:</tt> URLs, opening the connection of the wrapped URL
+ * through the installed {@link RoundTripSimulator}.
+ *
+ * <pre>
+ * SimulatedDriver.install(simulator);
+ * DriverManager.getConnection("jdbc:simulated:jdbc:h2:mem:test", "sa", "");
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class SimulatedDriver implements Driver {
+
+  public static final String PREFIX = "jdbc:simulated:";
+
+  private static final SimulatedDriver INSTANCE = new SimulatedDriver();
+  private static volatile RoundTripSimulator simulator = new RoundTripSimulator();
+
+  static {
+    try {
+      DriverManager.registerDriver(INSTANCE);
+    } catch (final SQLException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  public SimulatedDriver() {}
+
+  // Public Methods__________________________________________________________________ //
+
+  /**
+   * Registers the driver and sets the simulator of the connections opened from now on.
+   *
+   * @param simulator - the simulator of the connections.
+   */
+  public static void install(final RoundTripSimulator simulator) {
+    SimulatedDriver.simulator = simulator;
+  }
+
+  public static RoundTripSimulator getSimulator() {
+    return simulator;
+  }
+
+  // Driver - Public Methods_________________________________________________________ //
+
+  @Override
+  public Connection connect(final String url, final Properties info) throws SQLException {
+    if (!acceptsURL(url)) {
+      return null;
+    }
+
+    return simulator.wrap(DriverManager.getConnection(url.substring(PREFIX.length()), info));
+  }
+
+  @Override
+  public boolean acceptsURL(final String url) {
+    return url != null && url.startsWith(PREFIX);
+  }
+
+  @Override
+  public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+    return new DriverPropertyInfo[0];
+  }
+
+  @Override
+  public int getMajorVersion() {
+    return 1;
+  }
+
+  @Override
+  public int getMinorVersion() {
+    return 0;
+  }
+
+  @Override
+  public boolean jdbcCompliant() {
+    return false;
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    throw new SQLFeatureNotSupportedException();
+  }
+}
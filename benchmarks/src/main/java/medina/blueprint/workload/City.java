@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import medina.blueprint.entity.EntityColumn;
+import medina.blueprint.entity.EntityID;
+import medina.blueprint.entity.EntityObject;
+import medina.blueprint.entity.EntityTable;
+
+/**
+ * A city of the generated <tt>world</tt> schema, associated to its country.
+ *
+ * @author Gabriel Giordano
+ */
+@EntityTable("city")
+public class City {
+
+  @EntityID("id")
+  public int id;
+
+  @EntityColumn("name")
+  public String name;
+
+  @EntityColumn("district")
+  public String district;
+
+  @EntityColumn("population")
+  public int population;
+
+  @EntityObject("country_code")
+  public Country country;
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import medina.blueprint.entity.EntityColumn;
+import medina.blueprint.entity.EntityID;
+import medina.blueprint.entity.EntityTable;
+
+/**
+ * A country of the generated <tt>world</tt> schema.
+ *
+ * @author Gabriel Giordano
+ */
+@EntityTable("country")
+public class Country {
+
+  @EntityID("code")
+  public String code;
+
+  @EntityColumn("name")
+  public String name;
+
+  @EntityColumn("continent")
+  public String continent;
+
+  @EntityColumn("population")
+  public long population;
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import java.util.List;
+
+import medina.blueprint.entity.EntityColumn;
+import medina.blueprint.entity.EntityID;
+import medina.blueprint.entity.EntityList;
+import medina.blueprint.entity.EntityObject;
+import medina.blueprint.entity.EntityTable;
+
+/**
+ * A film of the generated <tt>sakila</tt> schema, associated to its language and actors.
+ *
+ * @author Gabriel Giordano
+ */
+@EntityTable("film")
+public class Film {
+
+  @EntityID("film_id")
+  public int id;
+
+  @EntityColumn("title")
+  public String title;
+
+  @EntityColumn("description")
+  public String description;
+
+  @EntityColumn("release_year")
+  public int releaseYear;
+
+  @EntityColumn("length")
+  public int length;
+
+  @EntityObject("language_id")
+  public Language language;
+
+  @EntityList
+  public List<FilmActor> actors;
+
+}
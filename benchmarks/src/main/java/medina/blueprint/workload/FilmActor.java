@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import medina.blueprint.entity.EntityID;
+import medina.blueprint.entity.EntityObject;
+import medina.blueprint.entity.EntityTable;
+
+/**
+ * The role of an actor in a film of the generated <tt>sakila</tt> schema.
+ *
+ * @author Gabriel Giordano
+ */
+@EntityTable("film_actor")
+public class FilmActor {
+
+  @EntityID("film_actor_id")
+  public int id;
+
+  @EntityObject("film_id")
+  public Film film;
+
+  @EntityObject("actor_id")
+  public Actor actor;
+
+}
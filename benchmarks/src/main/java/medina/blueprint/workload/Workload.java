@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import java.util.Random;
+
+/**
+ * An operation of the workload harness, run by many threads at once on their own sessions.
+ *
+ * @author Gabriel Giordano
+ */
+abstract class Workload {
+
+  final String name;
+  final boolean writing;
+
+  // Constructors____________________________________________________________________ //
+
+  Workload(final String name, final boolean writing) {
+    this.name = name;
+    this.writing = writing;
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  /**
+   * Runs the operation once, on the session bound to the calling thread, inside a transaction when
+   * the operation writes.
+   *
+   * @param random - the random source of the calling thread.
+   * @return false if the operation has nothing left to run on.
+   */
+  abstract boolean run(Random random);
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * Creates the <tt>world</tt> and <tt>sakila</tt> like schemas and fills them with generated rows,
+ * always the same ones for the same scale.
+ *
+ * <p>
+ * A scale of one has the size of the original databases: 239 countries and 4079 cities, and 1000
+ * films of 6 languages with 5 of the 200 actors each.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class WorkloadData {
+
+  private static final String[] CONTINENTS = {"Asia", "Europe", "North America", "Africa",
+      "Oceania", "Antarctica", "South America"};
+  private static final String[] LANGUAGES = {"English", "Italian", "Japanese", "Mandarin",
+      "French", "German"};
+  private static final String[] NAMES = {"Penelope", "Nick", "Ed", "Jennifer", "Johnny", "Bette",
+      "Grace", "Matthew", "Joe", "Christian", "Zero", "Karl", "Uma", "Vivien", "Cuba", "Fred"};
+
+  private static final int BATCH_SIZE = 500;
+  private static final int ACTORS_PER_FILM = 5;
+
+  final int countries;
+  final int cities;
+  final int films;
+  final int actors;
+
+  private final Random random;
+
+  // Constructors____________________________________________________________________ //
+
+  WorkloadData(final int scale) {
+    if (scale < 1 || scale > 70) {
+      throw new IllegalArgumentException("The scale must be from 1 to 70, not " + scale + ".");
+    }
+
+    countries = 239 * scale;
+    cities = 4079 * scale;
+    films = 1000 * scale;
+    actors = 200 * scale;
+
+    random = new Random(scale);
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  void create(final Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE country (code CHAR(3) PRIMARY KEY, name VARCHAR(52), "
+          + "continent VARCHAR(20), population BIGINT)");
+      statement.execute("CREATE TABLE city (id INT PRIMARY KEY, name VARCHAR(35), "
+          + "country_code CHAR(3) REFERENCES country(code), district VARCHAR(20), "
+          + "population INT)");
+      statement.execute("CREATE INDEX city_country ON city(country_code)");
+
+      statement.execute("CREATE TABLE language (language_id INT PRIMARY KEY, name CHAR(20))");
+      statement.execute("CREATE TABLE actor (actor_id INT PRIMARY KEY, first_name VARCHAR(45), "
+          + "last_name VARCHAR(45))");
+      statement.execute("CREATE TABLE film (film_id INT PRIMARY KEY, title VARCHAR(255), "
+          + "description VARCHAR(255), release_year INT, length INT, "
+          + "language_id INT REFERENCES language(language_id))");
+      statement.execute("CREATE TABLE film_actor (film_actor_id INT PRIMARY KEY, "
+          + "actor_id INT REFERENCES actor(actor_id), film_id INT REFERENCES film(film_id))");
+      statement.execute("CREATE INDEX film_actor_film ON film_actor(film_id)");
+    }
+
+    final boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+
+    try {
+      fillWorld(connection);
+      fillSakila(connection);
+      connection.commit();
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  static String countryCode(final int index) {
+    final char[] code = new char[3];
+    int value = index;
+
+    for (int position = 2; position >= 0; --position) {
+      code[position] = (char) ('A' + value % 26);
+      value /= 26;
+    }
+
+    return new String(code);
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void fillWorld(final Connection connection) throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO country VALUES (?, ?, ?, ?)")) {
+      for (int index = 0; index < countries; ++index) {
+        statement.setString(1, countryCode(index));
+        statement.setString(2, "Country " + index);
+        statement.setString(3, CONTINENTS[random.nextInt(CONTINENTS.length)]);
+        statement.setLong(4, 10000L + random.nextInt(100000000));
+        addBatch(statement, index);
+      }
+
+      statement.executeBatch();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO city VALUES (?, ?, ?, ?, ?)")) {
+      for (int index = 0; index < cities; ++index) {
+        statement.setInt(1, index + 1);
+        statement.setString(2, "City " + index);
+        statement.setString(3, countryCode(random.nextInt(countries)));
+        statement.setString(4, "District " + random.nextInt(cities / 3));
+        statement.setInt(5, 1000 + random.nextInt(10000000));
+        addBatch(statement, index);
+      }
+
+      statement.executeBatch();
+    }
+  }
+
+  private void fillSakila(final Connection connection) throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO language VALUES (?, ?)")) {
+      for (int index = 0; index < LANGUAGES.length; ++index) {
+        statement.setInt(1, index + 1);
+        statement.setString(2, LANGUAGES[index]);
+        statement.addBatch();
+      }
+
+      statement.executeBatch();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO actor VALUES (?, ?, ?)")) {
+      for (int index = 0; index < actors; ++index) {
+        statement.setInt(1, index + 1);
+        statement.setString(2, NAMES[random.nextInt(NAMES.length)]);
+        statement.setString(3, NAMES[random.nextInt(NAMES.length)] + "son");
+        addBatch(statement, index);
+      }
+
+      statement.executeBatch();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO film VALUES (?, ?, ?, ?, ?, ?)")) {
+      for (int index = 0; index < films; ++index) {
+        statement.setInt(1, index + 1);
+        statement.setString(2, "Film " + index);
+        statement.setString(3, "A generated story of " + NAMES[random.nextInt(NAMES.length)]);
+        statement.setInt(4, 1990 + random.nextInt(30));
+        statement.setInt(5, 46 + random.nextInt(140));
+        statement.setInt(6, 1 + random.nextInt(LANGUAGES.length));
+        addBatch(statement, index);
+      }
+
+      statement.executeBatch();
+    }
+
+    try (PreparedStatement statement =
+        connection.prepareStatement("INSERT INTO film_actor VALUES (?, ?, ?)")) {
+      int id = 0;
+
+      for (int film = 1; film <= films; ++film) {
+        for (int role = 0; role < ACTORS_PER_FILM; ++role) {
+          statement.setInt(1, ++id);
+          statement.setInt(2, 1 + random.nextInt(actors));
+          statement.setInt(3, film);
+          addBatch(statement, id);
+        }
+      }
+
+      statement.executeBatch();
+    }
+  }
+
+  private static void addBatch(final PreparedStatement statement, final int index)
+      throws SQLException {
+    statement.addBatch();
+
+    if ((index + 1) % BATCH_SIZE == 0) {
+      statement.executeBatch();
+    }
+  }
+}
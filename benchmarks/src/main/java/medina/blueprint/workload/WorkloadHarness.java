@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.BlueprintDao;
+import medina.blueprint.ConnectionPool;
+import medina.blueprint.Session;
+import medina.blueprint.SessionFactory;
+import medina.blueprint.exception.TransactionException;
+import medina.blueprint.monitor.LatencyHistogram;
+import medina.blueprint.monitor.QueryCounter;
+import medina.blueprint.session.RetryPolicy;
+import medina.blueprint.session.TransactionWork;
+import medina.blueprint.simulation.RoundTripSimulator;
+import medina.blueprint.simulation.SimulatedDriver;
+
+/**
+ * Runs the DAO operations against generated <tt>world</tt> and <tt>sakila</tt> like data on an
+ * embedded database, with many threads sharing the DAOs, and reports the throughput, the latency
+ * percentiles and the queries of each operation.
+ *
+ * <p>
+ * Each thread opens a pooled session per operation and binds it, so the numbers include the
+ * session and pool overhead of a real application. The writes run in transactions retried on
+ * conflicts, and the deletes end once the rows saved by <tt>actor.save</tt> are gone. The data is the same for the same scale, so
+ * runs of different versions can be compared.
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar medina.blueprint.workload.WorkloadHarness
+ *     --scale 1 --threads 8 --seconds 10 --warmup 5 --workloads city.search,film.search
+ * </pre>
+ *
+ * <p>
+ * The <tt>--latency</tt> and <tt>--fetch-latency</tt> options, in microseconds, run the
+ * workloads through a {@link RoundTripSimulator}, so the embedded database answers like a remote
+ * one.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class WorkloadHarness {
+
+  private final WorkloadData data;
+  private final SessionFactory factory;
+  private final int threads;
+
+  private final BlueprintDao<City> cities;
+  private final BlueprintDao<Film> films;
+  private final BlueprintDao<Actor> actors;
+
+  private final RetryPolicy retryPolicy;
+
+  private final AtomicInteger actorIds;
+  private final Queue<Integer> savedActors;
+
+  // Constructors____________________________________________________________________ //
+
+  private WorkloadHarness(final WorkloadData data, final SessionFactory factory,
+      final int threads) {
+    this.data = data;
+    this.factory = factory;
+    this.threads = threads;
+
+    cities = new BlueprintDao<City>() {};
+    films = new BlueprintDao<Film>() {};
+    films.getListsSettings().setFillLists(true);
+    actors = new BlueprintDao<Actor>() {};
+
+    retryPolicy = new RetryPolicy();
+
+    actorIds = new AtomicInteger(data.actors);
+    savedActors = new ConcurrentLinkedQueue<>();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> options = parse(args);
+
+    final int scale = Integer.parseInt(option(options, "scale", "1"));
+    final int threads = Integer.parseInt(option(options, "threads", "4"));
+    final long seconds = Long.parseLong(option(options, "seconds", "10"));
+    final long warmup = Long.parseLong(option(options, "warmup", "5"));
+    final String url = option(options, "url", "jdbc:h2:mem:workload;DB_CLOSE_DELAY=-1");
+    final String user = option(options, "user", "sa");
+    final String password = option(options, "password", "");
+    final long latency = Long.parseLong(option(options, "latency", "0"));
+    final long fetchLatency = Long.parseLong(option(options, "fetch-latency", "0"));
+
+    final WorkloadData data = new WorkloadData(scale);
+
+    try (Connection connection = DriverManager.getConnection(url, user, password)) {
+      final long start = System.nanoTime();
+      data.create(connection);
+
+      System.out.println("Generated scale " + scale + " in "
+          + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms: " + data.cities
+          + " cities of " + data.countries + " countries, " + data.films + " films and "
+          + data.actors + " actors.");
+
+      String poolUrl = url;
+
+      if (latency > 0 || fetchLatency > 0) {
+        final RoundTripSimulator simulator = new RoundTripSimulator(0);
+        simulator.setExecuteLatency(latency, TimeUnit.MICROSECONDS);
+        simulator.setFetchLatency(fetchLatency, TimeUnit.MICROSECONDS);
+
+        SimulatedDriver.install(simulator);
+        poolUrl = SimulatedDriver.PREFIX + url;
+
+        System.out.println("Simulating a round trip latency of " + latency
+            + "us and a fetch latency of " + fetchLatency + "us.");
+      }
+
+      final SessionFactory factory =
+          new SessionFactory(new ConnectionPool(poolUrl, user, password, threads, threads));
+
+      try {
+        final WorkloadHarness harness = new WorkloadHarness(data, factory, threads);
+        final Map<String, Workload> workloads = harness.workloads();
+
+        final List<String> names = options.containsKey("workloads")
+            ? Arrays.asList(options.get("workloads").split(","))
+            : new ArrayList<>(workloads.keySet());
+
+        System.out.println(WorkloadResult.HEADER);
+
+        for (final String name : names) {
+          final Workload workload = workloads.get(name);
+
+          if (workload == null) {
+            throw new IllegalArgumentException("Unknown workload " + name + ", expected one of "
+                + workloads.keySet() + ".");
+          }
+
+          harness.measure(workload, TimeUnit.SECONDS.toNanos(warmup));
+          System.out.println(harness.measure(workload, TimeUnit.SECONDS.toNanos(seconds)));
+        }
+      } finally {
+        factory.close();
+      }
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private Map<String, Workload> workloads() {
+    final Map<String, Workload> workloads = new LinkedHashMap<>();
+
+    add(workloads, new Workload("city.search", false) {
+
+      @Override
+      boolean run(final Random random) {
+        cities.search(1 + random.nextInt(data.cities));
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("city.page", false) {
+
+      @Override
+      boolean run(final Random random) {
+        cities.page(random.nextInt(data.cities - 50), 50);
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("city.list", false) {
+
+      @Override
+      boolean run(final Random random) {
+        cities.list();
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("film.search", false) {
+
+      @Override
+      boolean run(final Random random) {
+        films.search(1 + random.nextInt(data.films));
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("film.page", false) {
+
+      @Override
+      boolean run(final Random random) {
+        films.page(random.nextInt(data.films - 20), 20);
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("actor.save", true) {
+
+      @Override
+      boolean run(final Random random) {
+        final Actor actor = new Actor();
+        actor.id = actorIds.incrementAndGet();
+        actor.firstName = "Saved";
+        actor.lastName = "Actor " + actor.id;
+
+        actors.save(actor);
+        savedActors.add(actor.id);
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("actor.update", true) {
+
+      @Override
+      boolean run(final Random random) {
+        final Actor actor = new Actor();
+        actor.id = 1 + random.nextInt(data.actors);
+        actor.firstName = "Updated";
+        actor.lastName = "Actor " + random.nextInt();
+
+        actors.update(actor);
+        return true;
+      }
+
+    });
+
+    add(workloads, new Workload("actor.delete", true) {
+
+      @Override
+      boolean run(final Random random) {
+        final Integer id = savedActors.poll();
+
+        if (id == null) {
+          return false;
+        }
+
+        actors.delete(id);
+        return true;
+      }
+
+    });
+
+    return workloads;
+  }
+
+  private static void add(final Map<String, Workload> workloads, final Workload workload) {
+    workloads.put(workload.name, workload);
+  }
+
+  private WorkloadResult measure(final Workload workload, final long nanos)
+      throws InterruptedException {
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder failures = new LongAdder();
+    final CountDownLatch ready = new CountDownLatch(threads);
+    final CountDownLatch done = new CountDownLatch(threads);
+    final long[] window = new long[2];
+
+    final QueryCounter counter = QueryCounter.start();
+
+    try {
+      for (int index = 0; index < threads; ++index) {
+        final Random random = new Random(index);
+
+        final Thread thread = new Thread("workload-" + index) {
+
+          @Override
+          public void run() {
+            try {
+              ready.countDown();
+              ready.await();
+
+              final long deadline = System.nanoTime() + nanos;
+              long start;
+
+              while ((start = System.nanoTime()) < deadline) {
+                try {
+                  if (!runOnce(workload, random)) {
+                    break;
+                  }
+
+                  latency.record(System.nanoTime() - start);
+                } catch (final RuntimeException | TransactionException e) {
+                  failures.increment();
+                }
+              }
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } finally {
+              done.countDown();
+            }
+          }
+
+        };
+
+        thread.start();
+      }
+
+      ready.await();
+      window[0] = System.nanoTime();
+      done.await();
+      window[1] = System.nanoTime();
+
+      return new WorkloadResult(workload.name, threads, window[1] - window[0],
+          latency.getStatistics(), counter.getCount(), failures.sum());
+    } finally {
+      counter.close();
+    }
+  }
+
+  private boolean runOnce(final Workload workload, final Random random)
+      throws TransactionException {
+    final Session session = factory.openSession();
+    session.bind();
+
+    try {
+      if (workload.writing) {
+        return session.transaction().execute(new TransactionWork<Boolean>() {
+
+          @Override
+          public Boolean execute() {
+            return workload.run(random);
+          }
+
+        }, retryPolicy);
+      }
+
+      return workload.run(random);
+    } finally {
+      session.end();
+    }
+  }
+
+  private static Map<String, String> parse(final String[] args) {
+    final Map<String, String> options = new LinkedHashMap<>();
+
+    for (int index = 0; index < args.length; index += 2) {
+      if (!args[index].startsWith("--") || index + 1 == args.length) {
+        throw new IllegalArgumentException("Expected --option value pairs, not "
+            + Arrays.toString(args) + ".");
+      }
+
+      options.put(args[index].substring(2), args[index + 1]);
+    }
+
+    return options;
+  }
+
+  private static String option(final Map<String, String> options, final String name,
+      final String defaultValue) {
+    final String value = options.get(name);
+    return value == null ? defaultValue : value;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.workload;
+
+import java.util.concurrent.TimeUnit;
+
+import medina.blueprint.monitor.LatencyStatistics;
+
+/**
+ * The throughput, latency and round trips of a workload run.
+ *
+ * @author Gabriel Giordano
+ */
+final class WorkloadResult {
+
+  static final String HEADER = String.format("%-14s %8s %10s %12s %10s %10s %10s %10s %12s",
+      "workload", "threads", "ops", "ops/s", "p50(us)", "p99(us)", "p999(us)", "max(us)",
+      "queries/op");
+
+  final String name;
+  final int threads;
+  final long nanos;
+  final LatencyStatistics latency;
+  final long queries;
+  final long failures;
+
+  // Constructors____________________________________________________________________ //
+
+  WorkloadResult(final String name, final int threads, final long nanos,
+      final LatencyStatistics latency, final long queries, final long failures) {
+    this.name = name;
+    this.threads = threads;
+    this.nanos = nanos;
+    this.latency = latency;
+    this.queries = queries;
+    this.failures = failures;
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  double getThroughput() {
+    return latency.getCount() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+  }
+
+  double getQueriesPerOperation() {
+    return latency.getCount() == 0 ? 0 : queries / (double) latency.getCount();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  @Override
+  public String toString() {
+    return String.format("%-14s %8d %10d %12.1f %10d %10d %10d %10d %12.2f", name, threads,
+        latency.getCount(), getThroughput(), micros(latency.getP50()), micros(latency.getP99()),
+        micros(latency.getP999()), micros(latency.getMax()), getQueriesPerOperation())
+        + (failures > 0 ? "  (" + failures + " failed)" : "");
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static long micros(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
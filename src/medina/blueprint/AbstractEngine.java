@@ -16,28 +16,28 @@ package medina.blueprint;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collection;
 
+import medina.blueprint.dialect.Dialect;
 import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+import medina.blueprint.monitor.Monitors;
+import medina.blueprint.monitor.Operation;
 import medina.blueprint.util.StatementBuilder;
 
 abstract class AbstractEngine<E> extends EngineSpecification<E> {
-  private final StatementTranslator statementTranslator;
-  final ResultSetTranslator resultSetTranslator;
 
-  final SessionManager session;
+  private final SessionManager session;
 
   final EntityObjectsSettings objectsSettings;
   final EntityListsSettings listsSettings;
 
-  private PreparedStatement statement;
-  ResultSet resultSet;
+  private final ThreadLocal<EngineContext> contexts;
 
-  private final Collection<Object> placeholderValues;
-
-  private String sql;
-  private int fetch;
+  private volatile QueryCache queryCache;
+  private volatile String[] cacheTables;
+  private volatile QueryCoalescer queryCoalescer;
 
   // Constructors____________________________________________________________________ //
 
@@ -47,66 +47,310 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
     objectsSettings = new EntityObjectsSettings();
     listsSettings = new EntityListsSettings();
 
-    placeholderValues = new ArrayList<>();
+    contexts = new ThreadLocal<EngineContext>() {
 
-    statementTranslator = new StatementTranslator();
-    resultSetTranslator = new ResultSetTranslator();
+      @Override
+      protected EngineContext initialValue() {
+        return new EngineContext(getEntity());
+      }
 
-    fetch = 0;
+    };
   }
 
   // Package Methods_________________________________________________________________ //
 
+  final EngineContext context() {
+    return contexts.get();
+  }
+
+  final SessionManager getSession() throws BlueprintException {
+    final Session bound = Session.getBound();
+
+    if (bound != null) {
+      return bound;
+    }
+
+    if (session == null) {
+      throw new BlueprintException("No session was given to the DAO nor is bound to the thread "
+          + Thread.currentThread().getName() + ".");
+    }
+
+    return session;
+  }
+
+  final String[] getCacheTables() {
+    return cacheTables;
+  }
+
+  /**
+   * Returns the query cache when the session reads the committed state of the primary, and null
+   * inside of a transaction or when the queries are routed to a replica.
+   */
+  final QueryCache getReadableQueryCache() {
+    final QueryCache cache = queryCache;
+
+    return cache == null || !getSession().readsCommittedPrimary() ? null : cache;
+  }
+
   final void setStatement(final EngineStatementTool builder) {
-    this.sql = builder.end();
+    context().sql = builder.end();
   }
 
   final void runQuery() throws BlueprintException {
-    openStatement();
+    openQueryStatement();
     openResultSet();
   }
 
   final void translatePlaceholders() throws BlueprintException {
-    if (placeholderValues.isEmpty()) {
+    final EngineContext context = context();
+    final Collection<Object> values = context.placeholderValues;
+
+    context.placeholderValues = context.boundValues;
+    context.placeholderValues.clear();
+    context.boundValues = values;
+
+    if (values.isEmpty()) {
       return;
     }
 
     try {
-      statementTranslator.translate(placeholderValues);
-      placeholderValues.clear();
+      context.statementTranslator.translate(values);
     } catch (final SQLException e) {
       throw new BlueprintException(e);
     }
   }
 
   final void openStatement() throws BlueprintException {
+    final EngineContext context = context();
+
     try {
-      statement = session.getStatement(sql);
-      statementTranslator.setStatement(statement);
+      context.session = getSession();
+      context.statement = context.session.getStatement(context.sql);
+      prepareStatement(context);
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    }
+  }
 
-      if (fetch > 0) {
-        statement.setFetchSize(fetch);
-      }
+  final void openQueryStatement() throws BlueprintException {
+    final EngineContext context = context();
+
+    try {
+      context.session = getSession();
+      context.statement = context.session.getQueryStatement(context.sql);
+      prepareStatement(context);
     } catch (final SQLException e) {
       throw new BlueprintException(e);
     }
   }
 
+  private static void written(final EngineContext context) {
+    context.session.written();
+
+    if (QueryCache.isActive()) {
+      context.session.tableWritten(context.sql);
+    }
+  }
+
+  private static int executeUpdate(final EngineContext context,
+      final PreparedStatement statement, final Operation operation) throws SQLException {
+    context.session.countRoundTrip(context.sql);
+
+    if (!Monitors.isActive()) {
+      final int rows = statement.executeUpdate();
+      written(context);
+
+      return rows;
+    }
+
+    Monitors.executing(context.sql, operation);
+    final long start = System.nanoTime();
+
+    try {
+      final int rows = statement.executeUpdate();
+      written(context);
+      Monitors.executed(context.sql, context.boundValues, operation,
+          System.nanoTime() - start, rows);
+
+      return rows;
+    } catch (final SQLException e) {
+      Monitors.failed(context.sql, context.boundValues, operation,
+          System.nanoTime() - start, e);
+      throw e;
+    }
+  }
+
+  private void prepareStatement(final EngineContext context) throws SQLException {
+    context.statementTranslator.setStatement(context.statement);
+
+    if (context.streaming) {
+      context.statement.setFetchSize(getDialect().getStreamingFetchSize());
+    } else if (context.fetch > 0) {
+      context.statement.setFetchSize(context.fetch);
+    }
+  }
+
   final void openResultSet() throws BlueprintException {
+    final EngineContext context = context();
+
+    translatePlaceholders();
+
+    final QueryCoalescer coalescer = queryCoalescer;
+
+    if (coalescer != null && !context.streaming && context.session.isReplicaReadable()) {
+      openCoalescedResultSet(context, coalescer.join(context.session, context.sql,
+          context.boundValues));
+      return;
+    }
+
+    context.session.countRoundTrip(context.sql);
+
+    final boolean monitored = Monitors.isActive();
+
+    if (monitored) {
+      Monitors.executing(context.sql, Operation.QUERY);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
+
     try {
-      translatePlaceholders();
-      resultSet = statement.executeQuery();
-      resultSetTranslator.prepare(resultSet, sql);
+      context.resultSet = context.statement.executeQuery();
+      context.resultSetTranslator.prepare(context.resultSet, context.sql);
+    } catch (final SQLException e) {
+      if (monitored) {
+        Monitors.failed(context.sql, context.boundValues, Operation.QUERY,
+            System.nanoTime() - start, e);
+      }
+
+      throw new BlueprintException(e);
+    }
+
+    opened(context, monitored, true, start);
+  }
+
+  private void openCoalescedResultSet(final EngineContext context,
+      final QueryCoalescer.Flight flight) throws BlueprintException {
+    final boolean monitored = Monitors.isActive();
+
+    if (!flight.isLeader()) {
+      try {
+        context.resultSet = flight.await();
+        context.resultSetTranslator.prepare(context.resultSet, context.sql);
+      } catch (final SQLException e) {
+        throw new BlueprintException(e);
+      }
+
+      opened(context, monitored, false, 0);
+      return;
+    }
+
+    long start = 0;
+
+    try {
+      context.session.countRoundTrip(context.sql);
+
+      if (monitored) {
+        Monitors.executing(context.sql, Operation.QUERY);
+        start = System.nanoTime();
+      }
+
+      context.resultSet = flight.land(context.statement.executeQuery());
+      context.resultSetTranslator.prepare(context.resultSet, context.sql);
     } catch (final SQLException e) {
+      flight.fail(e);
+
+      if (monitored) {
+        Monitors.failed(context.sql, context.boundValues, Operation.QUERY,
+            System.nanoTime() - start, e);
+      }
+
       throw new BlueprintException(e);
+    } catch (final RuntimeException e) {
+      flight.fail(e);
+      throw e;
+    }
+
+    opened(context, monitored, true, start);
+  }
+
+  private static void opened(final EngineContext context, final boolean monitored,
+      final boolean executed, final long start) {
+    context.rows = 0;
+
+    if (monitored) {
+      final long end = System.nanoTime();
+
+      if (executed) {
+        Monitors.executed(context.sql, context.boundValues, Operation.QUERY, end - start, -1);
+      }
+
+      context.fetchedSql = context.sql;
+      context.fetchStart = end;
+      context.hydrated = 0;
+      context.hydrationTime = 0;
+    }
+  }
+
+  final boolean startCall() {
+    ++context().depth;
+    SessionManager.callStarted();
+
+    if (Monitors.isActive()) {
+      Monitors.callStarted();
+      return true;
     }
+
+    return false;
+  }
+
+  final void endCall(final boolean monitored) throws BlueprintException {
+    final EngineContext context = context();
+
+    try {
+      closeResultSet();
+    } finally {
+      if (--context.depth == 0) {
+        context.reset(getEntity());
+      }
+
+      SessionManager.callEnded();
+
+      if (monitored) {
+        Monitors.callEnded();
+      }
+    }
+  }
+
+  final boolean nextRow(final EngineContext context) throws SQLException {
+    if (context.resultSet.next()) {
+      ++context.rows;
+      return true;
+    }
+
+    return false;
   }
 
   final void closeResultSet() throws BlueprintException {
+    final EngineContext context = context();
+
     try {
-      if (resultSet != null) {
-        resultSet.close();
-        resultSet = null;
+      if (context.resultSet != null) {
+        context.resultSet.close();
+        context.resultSet = null;
+
+        if (context.fetchedSql != null) {
+          final String sql = context.fetchedSql;
+          context.fetchedSql = null;
+
+          final long nanos = System.nanoTime() - context.fetchStart;
+
+          if (context.hydrated > 0) {
+            Monitors.hydrated(sql, context.currentEntity.clazz, context.hydrated,
+                context.hydrationTime);
+          }
+
+          Monitors.fetched(sql, context.boundValues, context.rows, nanos);
+        }
       }
     } catch (final SQLException e) {
       throw new BlueprintException(e);
@@ -117,21 +361,23 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
 
   @Override
   protected final void setStatement(final String sql) {
-    this.sql = sql;
+    context().sql = sql;
   }
 
   @Override
   protected final void setStatement(final StatementBuilder<E> builder) {
-    this.sql = builder.prepare();
+    context().sql = builder.prepare();
   }
 
   @Override
   protected final void addPlaceholderValue(final Object value) {
-    placeholderValues.add(value);
+    context().placeholderValues.add(value);
   }
 
   @Override
   protected final void addPlaceholderValues(final Object... values) {
+    final Collection<Object> placeholderValues = context().placeholderValues;
+
     for (Object value : values) {
       placeholderValues.add(value);
     }
@@ -139,12 +385,12 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
 
   @Override
   protected final void addAllPlaceholderValues(final Collection<Object> values) {
-    placeholderValues.addAll(values);
+    context().placeholderValues.addAll(values);
   }
 
   @Override
   protected void resetAllPlaceholderValues() {
-    placeholderValues.clear();
+    context().placeholderValues.clear();
   }
 
   @Override
@@ -155,15 +401,21 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
   @Override
   protected final <T> T runCustomAutoIncrementInsert(final Class<T> keyType, final String[] columns)
       throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
     ResultSet generatedKeys = null;
 
     try {
-      statement = session.getAutoGeneratedKeyStatement(sql, columns);
-      statementTranslator.setStatement(statement);
+      context.session = getSession();
+
+      final PreparedStatement statement =
+          context.session.getAutoGeneratedKeyStatement(context.sql, columns);
+      context.statement = statement;
+      context.statementTranslator.setStatement(statement);
 
       translatePlaceholders();
 
-      final int rowsAffected = statement.executeUpdate();
+      final int rowsAffected = executeUpdate(context, statement, Operation.INSERT);
 
       T generatedKey;
 
@@ -171,7 +423,8 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
         generatedKeys = statement.getGeneratedKeys();
 
         if (generatedKeys.next()) {
-          generatedKey = resultSetTranslator.translateGeneratedKeys(generatedKeys, keyType);
+          generatedKey =
+              context.resultSetTranslator.translateGeneratedKeys(generatedKeys, keyType);
 
           if (generatedKeys.next()) {
             throw new BlueprintException("An undexpected auto generated key, was found.");
@@ -183,8 +436,10 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
         throw new BlueprintException("Insert failed, no rows affected.");
       }
 
-      System.err.println("	The generated key for the insert statement is " + generatedKey
-          + " of type " + keyType.getSimpleName() + "; " + rowsAffected + " rows are affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "The generated key for the insert statement is " + generatedKey
+            + " of type " + keyType.getSimpleName() + "; " + rowsAffected + " rows are affected.");
+      }
 
       return generatedKey;
     } catch (final SQLException e) {
@@ -196,6 +451,8 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
         }
       } catch (final SQLException e) {
         throw new BlueprintException(e);
+      } finally {
+        endCall(monitored);
       }
     }
   }
@@ -207,15 +464,21 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
 
   @Override
   protected final int runAutoIncrementInsert(final String[] columns) throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
     ResultSet generatedKeys = null;
 
     try {
-      statement = session.getAutoGeneratedKeyStatement(sql, columns);
-      statementTranslator.setStatement(statement);
+      context.session = getSession();
+
+      final PreparedStatement statement =
+          context.session.getAutoGeneratedKeyStatement(context.sql, columns);
+      context.statement = statement;
+      context.statementTranslator.setStatement(statement);
 
       translatePlaceholders();
 
-      final int rowsAffected = statement.executeUpdate();
+      final int rowsAffected = executeUpdate(context, statement, Operation.INSERT);
 
       int generatedKey = -1;
 
@@ -235,8 +498,10 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
         throw new BlueprintException("Insert failed, no rows affected.");
       }
 
-      System.err.println("	The generated key for the insert statement is " + generatedKey + "; "
-          + rowsAffected + " rows are affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "The generated key for the insert statement is " + generatedKey
+            + "; " + rowsAffected + " rows are affected.");
+      }
 
       return generatedKey;
     } catch (final SQLException e) {
@@ -248,18 +513,26 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
         }
       } catch (final SQLException e) {
         throw new BlueprintException(e);
+      } finally {
+        endCall(monitored);
       }
     }
   }
 
   @Override
   protected final int runUpdate() throws BlueprintException {
+    final boolean monitored = startCall();
+
     try {
       openStatement();
       translatePlaceholders();
-      return statement.executeUpdate();
+
+      final EngineContext context = context();
+      return executeUpdate(context, context.statement, Operation.UPDATE);
     } catch (final SQLException e) {
       throw new BlueprintException(e);
+    } finally {
+      endCall(monitored);
     }
   }
 
@@ -272,7 +545,7 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
   protected final void addBatch() throws BlueprintException {
     try {
       translatePlaceholders();
-      statement.addBatch();
+      context().statement.addBatch();
     } catch (final SQLException e) {
       throw new BlueprintException(e);
     }
@@ -280,20 +553,93 @@ abstract class AbstractEngine<E> extends EngineSpecification<E> {
 
   @Override
   protected final int[] runBatch() throws BlueprintException {
+    final EngineContext context = context();
+    context.session.countRoundTrip(context.sql);
+    final boolean monitored = Monitors.isActive();
+
+    if (monitored) {
+      Monitors.executing(context.sql, Operation.BATCH);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
+
     try {
-      return statement.executeBatch();
+      final int[] counts = context.statement.executeBatch();
+      written(context);
+
+      if (monitored) {
+        long rows = 0;
+
+        for (final int count : counts) {
+          if (count > 0) {
+            rows += count;
+          }
+        }
+
+        Monitors.executed(context.sql, context.boundValues, Operation.BATCH,
+            System.nanoTime() - start, rows);
+      }
+
+      return counts;
     } catch (final SQLException e) {
+      if (monitored) {
+        Monitors.failed(context.sql, context.boundValues, Operation.BATCH,
+            System.nanoTime() - start, e);
+      }
+
       throw new BlueprintException(e);
     }
   }
 
   @Override
   protected final void setFetchSize(final int size) {
-    fetch = size;
+    context().fetch = size;
   }
 
   @Override
   public final int getFetchSize() {
-    return fetch;
+    return context().fetch;
+  }
+
+  /**
+   * Caches the results of the queries of this DAO until a table they read is written or the time
+   * to live of the cache elapses. The tables of the entity and of its associations are tracked,
+   * along with the declared ones read by custom statements. The queries run inside of transactions
+   * or routed to replicas bypass the cache. A null cache disables caching.
+   *
+   * @param cache - the cache, which may be shared by several DAOs.
+   * @param tables - the other tables read by the queries.
+   */
+  public final void setQueryCache(final QueryCache cache, final String... tables) {
+    cacheTables = cache == null ? null : QueryCache.tablesOf(getEntity(), tables);
+    queryCache = cache;
+  }
+
+  public final QueryCache getQueryCache() {
+    return queryCache;
+  }
+
+  /**
+   * Shares a single execution among the identical queries run at the same time on the same
+   * connection source by this DAO, and by the others using the same coalescer. The queries of a
+   * transaction, or of a session still reading its own writes, are not coalesced. A null coalescer
+   * disables it.
+   */
+  public final void setQueryCoalescer(final QueryCoalescer coalescer) {
+    queryCoalescer = coalescer;
+  }
+
+  public final QueryCoalescer getQueryCoalescer() {
+    return queryCoalescer;
+  }
+
+  @Override
+  protected final void setStreaming(final boolean streaming) {
+    context().streaming = streaming;
+  }
+
+  @Override
+  protected final Dialect getDialect() {
+    return getSession().dialect;
   }
 }
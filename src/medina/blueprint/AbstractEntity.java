@@ -53,6 +53,19 @@ public abstract class AbstractEntity implements EntitySpecification {
     return identity.field.get(instance);
   }
 
+  @Override
+  public Object getValueOf(final String label, final Object instance)
+      throws IllegalArgumentException, IllegalAccessException {
+    final Variable variable = getVariable(label);
+
+    if (variable == null) {
+      throw new IllegalArgumentException("No column '" + label + "' is mapped on "
+          + clazz.getSimpleName() + ".");
+    }
+
+    return variable.field.get(instance);
+  }
+
   @Override
   public void nextSeveralVariables(final EntityListener listener, final Object instance)
       throws IllegalArgumentException, IllegalAccessException {
@@ -211,6 +224,24 @@ public abstract class AbstractEntity implements EntitySpecification {
     return !clazz.getSuperclass().equals(Object.class);
   }
 
+  // Package Methods_________________________________________________________________ //
+
+  Variable getVariable(final String label) {
+    if (hasIdentity() && identity.hasField() && identity.label.equalsIgnoreCase(label)) {
+      return identity;
+    }
+
+    if (hasColumn()) {
+      for (final Variable variable : this.columns) {
+        if (variable.label.equalsIgnoreCase(label)) {
+          return variable;
+        }
+      }
+    }
+
+    return null;
+  }
+
   // Package Inner Classes___________________________________________________________ //
 
   class Variable {
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Batches the searches by identity of a DAO made within a scope into chunked <tt>IN</tt> queries.
+ *
+ * <p>
+ * Every {@link #load(Object)} returns a future of the entity and queues its identity, unless it was
+ * already requested, in which case the same future is returned. The queued identities are searched
+ * by {@link #dispatch()}, by {@link #close()} at the end of the scope, or on the first
+ * <tt>get</tt> or <tt>join</tt> of a pending future, with one query per chunk. Identities without a
+ * row complete with null. Numeric identities are matched by their value whatever their type, as
+ * the associations of the engine are.
+ * </p>
+ *
+ * <p>
+ * The futures derived from a pending one, as by <tt>thenApply</tt>, dispatch the queue too when
+ * waited on. The ones combining several futures, as by <tt>CompletableFuture.allOf</tt>, do not,
+ * so the queue must be dispatched before waiting on them.
+ * </p>
+ *
+ * <p>
+ * A loader remembers the loaded entities until it is cleared, so it is meant to live as long as a
+ * single request. The queries run on the session of the DAO, in the thread calling dispatch.
+ * </p>
+ *
+ * <pre>
+ * try (BatchLoader&lt;City&gt; loader = new BatchLoader&lt;&gt;(cityDao)) {
+ *   CompletableFuture&lt;City&gt; first = loader.load(1);
+ *   CompletableFuture&lt;City&gt; second = loader.load(2);
+ *   loader.dispatch(); // SELECT ... WHERE ID IN (?, ?)
+ * }
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class BatchLoader<E> implements AutoCloseable {
+
+  private static final int DEFAULT_CHUNK_SIZE = 256;
+  private static final int MAX_CHUNK_SIZE = 1024;
+
+  private final BlueprintDao<E> dao;
+  private final int chunkSize;
+
+  private final Map<Object, PendingFuture<E>> futures;
+  private final Map<Object, Object> queue;
+
+  private long queries;
+
+  // Constructors____________________________________________________________________ //
+
+  public BatchLoader(final BlueprintDao<E> dao) {
+    this(dao, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param dao - the DAO whose entities are searched.
+   * @param chunkSize - the identities searched by a query, up to 1024 or the dialect IN limit.
+   */
+  public BatchLoader(final BlueprintDao<E> dao, final int chunkSize) {
+    if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+      throw new BlueprintException("The chunk size must be between 1 and " + MAX_CHUNK_SIZE
+          + ".");
+    }
+
+    if (!dao.getEntity().hasIdentity() || !dao.getEntity().getIdentity().hasField()) {
+      throw new BlueprintException("The entity "
+          + dao.getEntity().getEntityClass().getSimpleName() + " has no identity field.");
+    }
+
+    this.dao = dao;
+    this.chunkSize = chunkSize;
+
+    futures = new LinkedHashMap<>();
+    queue = new LinkedHashMap<>();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public synchronized CompletableFuture<E> load(final Object identity) {
+    final Object key = EngineUtil.identityKey(identity);
+    PendingFuture<E> future = futures.get(key);
+
+    if (future == null) {
+      future = new PendingFuture<>();
+      futures.put(key, future);
+      queue.put(key, identity);
+    }
+
+    return future;
+  }
+
+  public List<CompletableFuture<E>> loadMany(final Object... identities) {
+    return loadMany(Arrays.asList(identities));
+  }
+
+  public List<CompletableFuture<E>> loadMany(final Collection<?> identities) {
+    final List<CompletableFuture<E>> loaded = new ArrayList<>(identities.size());
+
+    for (final Object identity : identities) {
+      loaded.add(load(identity));
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Searches every queued identity, completing their futures. When a search fails, the futures of
+   * its identities and of the ones not yet searched fail with it, and are forgotten so the next
+   * load searches them again.
+   */
+  public void dispatch() throws BlueprintException {
+    final Map<Object, Object> pending;
+
+    synchronized (this) {
+      if (queue.isEmpty()) {
+        return;
+      }
+
+      pending = new LinkedHashMap<>(queue);
+      queue.clear();
+    }
+
+    final List<Object> identities = new ArrayList<>(pending.values());
+
+    int from = 0;
+
+    try {
+      final int size = Math.min(chunkSize, dao.getDialect().getMaxInListSize());
+
+      for (; from < identities.size(); from += size) {
+        search(identities.subList(from, Math.min(from + size, identities.size())));
+      }
+    } catch (final RuntimeException e) {
+      fail(identities.subList(from, identities.size()), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Forgets the loaded entities, so they are searched again when requested. The identities queued
+   * or being searched are kept, so their futures are still completed.
+   */
+  public synchronized void clear() {
+    final Iterator<PendingFuture<E>> iterator = futures.values().iterator();
+
+    while (iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized int getPendingCount() {
+    return queue.size();
+  }
+
+  public synchronized long getQueryCount() {
+    return queries;
+  }
+
+  @Override
+  public void close() throws BlueprintException {
+    dispatch();
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void search(final List<Object> identities) throws BlueprintException {
+    final Entity entity = dao.getEntity();
+
+    synchronized (this) {
+      ++queries;
+    }
+
+    final List<E> rows = dao.criteria().in(entity.getIdentity().getLabel(), identities).list();
+
+    try {
+      for (final E row : rows) {
+        final PendingFuture<E> future = future(entity.getIdentityValue(row));
+
+        if (future != null) {
+          future.complete(row);
+        }
+      }
+    } catch (final IllegalAccessException e) {
+      throw new BlueprintException(e);
+    } finally {
+      for (final Object identity : identities) {
+        final PendingFuture<E> future = future(identity);
+
+        if (future != null) {
+          future.complete(null);
+        }
+      }
+    }
+  }
+
+  private synchronized PendingFuture<E> future(final Object identity) {
+    return futures.get(EngineUtil.identityKey(identity));
+  }
+
+  private void fail(final List<Object> identities, final RuntimeException e) {
+    final List<PendingFuture<E>> failed = new ArrayList<>(identities.size());
+
+    synchronized (this) {
+      for (final Object identity : identities) {
+        final Object key = EngineUtil.identityKey(identity);
+        final PendingFuture<E> future = futures.get(key);
+
+        if (future != null && !future.isDone()) {
+          futures.remove(key);
+          failed.add(future);
+        }
+      }
+    }
+
+    for (final PendingFuture<E> future : failed) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  /**
+   * A future dispatching the queue when waited on before being completed, as are the futures
+   * derived from it.
+   */
+  private final class PendingFuture<T> extends CompletableFuture<T> {
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+      return new PendingFuture<>();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+      dispatchIfPending();
+      return super.get();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit) throws InterruptedException,
+        ExecutionException, TimeoutException {
+      dispatchIfPending();
+      return super.get(timeout, unit);
+    }
+
+    @Override
+    public T join() {
+      dispatchIfPending();
+      return super.join();
+    }
+
+    private void dispatchIfPending() {
+      if (!isDone()) {
+        dispatch();
+      }
+    }
+  }
+}
@@ -13,19 +13,31 @@
  */
 package medina.blueprint;
 
+import medina.blueprint.dialect.Dialect;
 import medina.blueprint.util.StatementBuilder;
 
 public abstract class Blueprint<E> extends Engine<E> {
 
   protected final StatementBuilder<E> statementTool;
 
+  public Blueprint() {
+    this(null);
+  }
+
   public Blueprint(final SessionManager session) {
     super(session);
 
     final Class<?> defaultClass = EngineUtil.resolveGenericType(getClass());
     setDefaultEntity(defaultClass);
 
-    statementTool = new StatementTool<E>(defaultClass) {};
+    statementTool = new StatementTool<E>(defaultClass) {
+
+      @Override
+      Dialect getDialect() {
+        return Blueprint.this.getDialect();
+      }
+
+    };
 
     objectsSettings.setFillObjects(true);
     objectsSettings.setFillSubObjects(false);
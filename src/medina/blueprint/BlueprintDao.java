@@ -15,15 +15,24 @@ package medina.blueprint;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import medina.blueprint.dao.DaoLayer;
 import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
 
 public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E> {
 
   // Constructors____________________________________________________________________ //
 
+  public BlueprintDao() {
+    super();
+  }
+
   public BlueprintDao(final SessionManager session) {
     super(session);
   }
@@ -47,6 +56,93 @@ public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E
     return runSeveralRows();
   }
 
+  @Override
+  public List<E> page(final Object afterKey, final int limit) {
+    final String identity = getEntity().getIdentity().getLabel();
+
+    if (afterKey == null) {
+      statementTool.select().orderBy(identity);
+    } else {
+      statementTool.select().after().orderBy(identity);
+      addPlaceholderValue(afterKey);
+    }
+
+    addPlaceholderValue(statementTool.limit(limit));
+    setStatement(statementTool);
+    setFetchSize(limit);
+
+    return runSeveralRows();
+  }
+
+  public List<E> page(final String column, final Object afterValue, final Object afterKey,
+      final int limit) {
+    final String identity = getEntity().getIdentity().getLabel();
+
+    if (afterKey == null) {
+      statementTool.select().orderBy(column, identity);
+    } else {
+      statementTool.select().after(column).orderBy(column, identity);
+      addPlaceholderValues(afterValue, afterValue, afterKey);
+    }
+
+    addPlaceholderValue(statementTool.limit(limit));
+    setStatement(statementTool);
+    setFetchSize(limit);
+
+    return runSeveralRows();
+  }
+
+  @Override
+  public Iterable<List<E>> pages(final int limit) {
+    return pages(null, limit);
+  }
+
+  public Iterable<List<E>> pages(final String column, final int limit) {
+    return new Iterable<List<E>>() {
+
+      @Override
+      public Iterator<List<E>> iterator() {
+        return new PageIterator(column, limit);
+      }
+
+    };
+  }
+
+  public Criteria<E> criteria() {
+    return new Criteria<>(this);
+  }
+
+  public <D> List<D> projectInto(final Class<D> type) {
+    final Collection<String> columns = Projection.of(type).getLabels(getEntity());
+
+    if (columns.isEmpty()) {
+      throw new BlueprintException("No field of " + type.getSimpleName() + " is mapped on "
+          + getEntity().getEntityClass().getSimpleName() + ".");
+    }
+
+    setStatement(statementTool.select(columns.toArray(new String[columns.size()])));
+
+    return runProjection(type);
+  }
+
+  public List<Object[]> project(final String... columns) {
+    setStatement(statementTool.select(columns));
+
+    return runSeveralArrays();
+  }
+
+  public long[] listIds() {
+    setStatement(statementTool.select(getEntity().getIdentity().getLabel()));
+
+    return runLongColumn();
+  }
+
+  public int[] listIntIds() {
+    setStatement(statementTool.select(getEntity().getIdentity().getLabel()));
+
+    return runIntColumn();
+  }
+
   @Override
   public E search(final String identity) {
     return genericSearch(identity);
@@ -72,16 +168,22 @@ public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E
         throw new BlueprintException(e);
       }
 
-      System.err.println("	Saved successfully, the auto generated key " + "was inserted on the "
-          + getEntity().getIdentity().getFieldName() + " field of "
-          + getEntity().getEntityClass().getSimpleName() + ".");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Saved successfully, the auto generated key was inserted on the "
+            + getEntity().getIdentity().getFieldName() + " field of "
+            + getEntity().getEntityClass().getSimpleName() + ".");
+      }
     } else {
       final int rowsAffected = runUpdate();
 
       if (rowsAffected == 0) {
-        System.err.println("	Insert was no effect, no rows affected.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Insert was no effect, no rows affected.");
+        }
       } else {
-        System.err.println("	Saved successfully, " + rowsAffected + " rows affected.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Saved successfully, " + rowsAffected + " rows affected.");
+        }
       }
     }
   }
@@ -95,9 +197,13 @@ public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E
     final int rowsAffected = runUpdate();
 
     if (rowsAffected == 0) {
-      System.err.println("	Update was no effect, no rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Update was no effect, no rows affected.");
+      }
     } else {
-      System.err.println("	Updated successfully, " + rowsAffected + " rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Updated successfully, " + rowsAffected + " rows affected.");
+      }
     }
   }
 
@@ -119,9 +225,13 @@ public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E
     final int rowsAffected = runUpdate();
 
     if (rowsAffected == 0) {
-      System.err.println("	Delete was no effect, no rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Delete was no effect, no rows affected.");
+      }
     } else {
-      System.err.println("	Delete successfully, " + rowsAffected + " rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Delete successfully, " + rowsAffected + " rows affected.");
+      }
     }
   }
   
@@ -158,9 +268,80 @@ public abstract class BlueprintDao<E> extends Blueprint<E> implements DaoLayer<E
     final int rowsAffected = runUpdate();
 
     if (rowsAffected == 0) {
-      System.err.println("	Delete was no effect, no rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Delete was no effect, no rows affected.");
+      }
     } else {
-      System.err.println("	Delete successfully, " + rowsAffected + " rows affected.");
+      if (Loggers.isEnabled(Level.DEBUG)) {
+        Loggers.log(Level.DEBUG, "Delete successfully, " + rowsAffected + " rows affected.");
+      }
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private final class PageIterator implements Iterator<List<E>> {
+
+    private final String column;
+    private final int limit;
+
+    private Object afterValue;
+    private Object afterKey;
+
+    private List<E> next;
+    private boolean last;
+
+    private PageIterator(final String column, final int limit) {
+      this.column = column;
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !last) {
+        next = column == null ? page(afterKey, limit) : page(column, afterValue, afterKey, limit);
+
+        if (next.size() < limit) {
+          last = true;
+        }
+
+        if (next.isEmpty()) {
+          next = null;
+        } else {
+          seek(next.get(next.size() - 1));
+        }
+      }
+
+      return next != null;
+    }
+
+    @Override
+    public List<E> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      final List<E> page = next;
+      next = null;
+
+      return page;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private void seek(final E row) {
+      try {
+        afterKey = getEntity().getIdentityValue(row);
+
+        if (column != null) {
+          afterValue = getEntity().getValueOf(column, row);
+        }
+      } catch (IllegalArgumentException | IllegalAccessException e) {
+        throw new BlueprintException(e);
+      }
     }
   }
 }
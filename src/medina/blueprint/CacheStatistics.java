@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+/**
+ * An immutable snapshot of the counters of a framework cache.
+ *
+ * @author Gabriel Giordano
+ */
+public final class CacheStatistics {
+
+  private final int size;
+  private final int capacity;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+
+  // Constructors____________________________________________________________________ //
+
+  CacheStatistics(final int size, final int capacity, final long hits, final long misses,
+      final long evictions) {
+    this.size = size;
+    this.capacity = capacity;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public long getRequests() {
+    return hits + misses;
+  }
+
+  public double getHitRate() {
+    final long requests = getRequests();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "size=" + size + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses
+        + ", evictions=" + evictions + ", hitRate=" + String.format("%.4f", getHitRate());
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * A bounded cache of <tt>ResultSet</tt> column mappings, keyed by the layout of the result columns
+ * instead of the SQL text, so queries with inlined literals share the same mapping.
+ *
+ * <p>
+ * Lookups never block. When the capacity is exceeded, the least recently used layout is evicted.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class ColumnMappingCache {
+
+  static final int DEFAULT_CAPACITY = 512;
+
+  private final ConcurrentMap<String, Node> nodeMap;
+  private final Object evictionLock;
+
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  private volatile int capacity;
+
+  // Constructors____________________________________________________________________ //
+
+  ColumnMappingCache(final int capacity) {
+    nodeMap = new ConcurrentHashMap<>();
+    evictionLock = new Object();
+
+    hits = new LongAdder();
+    misses = new LongAdder();
+    evictions = new LongAdder();
+
+    setCapacity(capacity);
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  Map<String, Integer> get(final ResultSetMetaData metaData) throws SQLException {
+    final int count = metaData.getColumnCount();
+    final String[] columns = new String[count];
+
+    final StringBuilder layout = new StringBuilder(count * 16);
+
+    for (int index = 0; index < count; ++index) {
+      columns[index] = metaData.getColumnLabel(index + 1).toLowerCase();
+      layout.append(columns[index]).append(',');
+    }
+
+    final String key = layout.toString();
+    final Node node = nodeMap.get(key);
+
+    if (node != null) {
+      hits.increment();
+      node.access = System.nanoTime();
+
+      return node.columnMapping;
+    }
+
+    misses.increment();
+
+    final Map<String, Integer> columnMapping = new HashMap<>();
+
+    int index = count;
+    while (index-- > 0) {
+      columnMapping.put(columns[index], index + 1);
+    }
+
+    final Node previous =
+        nodeMap.putIfAbsent(key, new Node(Collections.unmodifiableMap(columnMapping)));
+
+    if (previous != null) {
+      return previous.columnMapping;
+    }
+
+    if (nodeMap.size() > capacity) {
+      evict();
+    }
+
+    return columnMapping;
+  }
+
+  void setCapacity(final int capacity) {
+    if (capacity < 1) {
+      throw new BlueprintException("The column mapping cache capacity must be positive.");
+    }
+
+    this.capacity = capacity;
+
+    if (nodeMap.size() > capacity) {
+      evict();
+    }
+  }
+
+  void clear() {
+    nodeMap.clear();
+  }
+
+  CacheStatistics getStatistics() {
+    return new CacheStatistics(nodeMap.size(), capacity, hits.sum(), misses.sum(),
+        evictions.sum());
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void evict() {
+    synchronized (evictionLock) {
+      while (nodeMap.size() > capacity) {
+        String eldestKey = null;
+        long eldestAccess = Long.MAX_VALUE;
+
+        for (final Map.Entry<String, Node> entry : nodeMap.entrySet()) {
+          if (entry.getValue().access < eldestAccess) {
+            eldestAccess = entry.getValue().access;
+            eldestKey = entry.getKey();
+          }
+        }
+
+        if (eldestKey == null || nodeMap.remove(eldestKey) == null) {
+          return;
+        }
+
+        evictions.increment();
+      }
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Node {
+
+    private final Map<String, Integer> columnMapping;
+    private volatile long access;
+
+    private Node(final Map<String, Integer> columnMapping) {
+      this.columnMapping = columnMapping;
+      this.access = System.nanoTime();
+    }
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+
+/**
+ * A light-weight pool of physical connections used by a {@link SessionFactory}.
+ *
+ * <p>
+ * Idle connections are kept on a lock-free stack, so the most recently used one is borrowed
+ * first, and a semaphore bounds the number of open connections. A borrower waits at most the
+ * configured time for a connection to be released. Connections idle for longer than the validation
+ * interval are validated before being borrowed. The pool opens its minimum of connections when
+ * created, and opens new ones whenever broken connections leave it below that minimum.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see SessionFactory
+ */
+public final class ConnectionPool {
+
+  private final DataSource dataSource;
+  private final String url;
+  private final String user;
+  private final String password;
+
+  private final int minSize;
+  private final int maxSize;
+
+  private final ConcurrentLinkedDeque<PooledConnection> idle;
+  private final Semaphore permits;
+  private final AtomicInteger size;
+
+  private volatile long maxWait;
+  private volatile long validationInterval;
+  private volatile int validationTimeout;
+  private volatile boolean closed;
+
+  // Constructors____________________________________________________________________ //
+
+  public ConnectionPool(final DataSource dataSource, final int minSize, final int maxSize) {
+    this(dataSource, null, null, null, minSize, maxSize);
+  }
+
+  public ConnectionPool(final String url, final String user, final String password,
+      final int minSize, final int maxSize) {
+    this(null, url, user, password, minSize, maxSize);
+  }
+
+  private ConnectionPool(final DataSource dataSource, final String url, final String user,
+      final String password, final int minSize, final int maxSize) {
+    if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+      throw new BlueprintException("Invalid pool size, min " + minSize + " and max " + maxSize
+          + ".");
+    }
+
+    this.dataSource = dataSource;
+    this.url = url;
+    this.user = user;
+    this.password = password;
+
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+
+    idle = new ConcurrentLinkedDeque<>();
+    permits = new Semaphore(maxSize);
+    size = new AtomicInteger();
+
+    maxWait = TimeUnit.SECONDS.toMillis(30);
+    validationInterval = TimeUnit.SECONDS.toMillis(30);
+    validationTimeout = 5;
+
+    try {
+      for (int index = 0; index < minSize; ++index) {
+        idle.push(open());
+      }
+    } catch (final RuntimeException e) {
+      closed = true;
+
+      PooledConnection pooled;
+
+      while ((pooled = idle.poll()) != null) {
+        try {
+          discard(pooled);
+        } catch (final RuntimeException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+      }
+
+      throw e;
+    }
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public void setMaxWait(final long millis) {
+    this.maxWait = millis;
+  }
+
+  public void setValidationInterval(final long millis) {
+    this.validationInterval = millis;
+  }
+
+  public void setValidationTimeout(final int seconds) {
+    this.validationTimeout = seconds;
+  }
+
+  public int getMinSize() {
+    return minSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getSize() {
+    return size.get();
+  }
+
+  public int getIdleCount() {
+    return idle.size();
+  }
+
+  public int getActiveCount() {
+    return maxSize - permits.availablePermits();
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public void close() throws BlueprintException {
+    closed = true;
+
+    PooledConnection pooled;
+
+    while ((pooled = idle.poll()) != null) {
+      discard(pooled);
+    }
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  PooledConnection acquire() throws BlueprintException {
+    if (closed) {
+      throw new BlueprintException("The connection pool is closed.");
+    }
+
+    try {
+      if (!permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS)) {
+        throw new BlueprintException("No connection was released after waiting " + maxWait
+            + "ms, the pool has " + maxSize + " active connections.");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BlueprintException(e);
+    }
+
+    return borrow();
+  }
+
+  /**
+   * Borrows a connection without waiting, or returns null if all of them are active.
+   */
+  PooledConnection tryAcquire() throws BlueprintException {
+    if (closed || !permits.tryAcquire()) {
+      return null;
+    }
+
+    return borrow();
+  }
+
+  void release(final PooledConnection pooled) {
+    try {
+      if (closed || pooled.connection.isClosed()) {
+        discard(pooled);
+      } else {
+        pooled.releasedAt = System.nanoTime();
+        idle.push(pooled);
+      }
+    } catch (final SQLException e) {
+      discard(pooled);
+    } finally {
+      permits.release();
+    }
+
+    if (closed) {
+      close();
+    } else {
+      fill();
+    }
+  }
+
+  void discard(final PooledConnection pooled) {
+    size.decrementAndGet();
+
+    try {
+      pooled.close();
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    } finally {
+      fill();
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private PooledConnection borrow() throws BlueprintException {
+    try {
+      PooledConnection pooled;
+
+      while ((pooled = idle.poll()) != null) {
+        if (isValid(pooled)) {
+          return pooled;
+        }
+
+        discard(pooled);
+      }
+
+      return open();
+    } catch (final RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private PooledConnection open() throws BlueprintException {
+    final PooledConnection pooled = connect();
+    size.incrementAndGet();
+
+    return pooled;
+  }
+
+  /**
+   * Opens idle connections until the pool is back to its minimum size. A failure is only logged,
+   * since the next borrower opens a connection anyway.
+   */
+  private void fill() {
+    int current;
+
+    while (!closed && (current = size.get()) < minSize) {
+      if (!size.compareAndSet(current, current + 1)) {
+        continue;
+      }
+
+      try {
+        idle.push(connect());
+      } catch (final RuntimeException e) {
+        size.decrementAndGet();
+
+        if (Loggers.isEnabled(Level.WARN)) {
+          Loggers.log(Level.WARN, "Could not refill the connection pool: " + e.getMessage());
+        }
+
+        return;
+      }
+    }
+
+    if (closed) {
+      close();
+    }
+  }
+
+  private PooledConnection connect() throws BlueprintException {
+    try {
+      if (dataSource != null) {
+        return new PooledConnection(dataSource.getConnection());
+      }
+
+      return new PooledConnection(DriverManager.getConnection(url, user, password));
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  private boolean isValid(final PooledConnection pooled) {
+    if (System.nanoTime() - pooled.releasedAt < TimeUnit.MILLISECONDS.toNanos(validationInterval)) {
+      return true;
+    }
+
+    try {
+      return pooled.connection.isValid(validationTimeout);
+    } catch (final SQLException e) {
+      return false;
+    }
+  }
+}
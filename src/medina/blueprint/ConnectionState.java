@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Tracks the transaction settings last applied to a connection.
+ *
+ * <p>
+ * With many drivers every <tt>setAutoCommit</tt>, <tt>setReadOnly</tt> and
+ * <tt>setTransactionIsolation</tt> call is a round trip to the server, so a setting is only
+ * applied when it differs from the one already in place. The state lives with the physical
+ * connection, so a pooled connection keeps it across the sessions borrowing it. A setting is
+ * unknown until it is applied for the first time, or after {@link #invalidate()}.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class ConnectionState {
+
+  private static final int UNKNOWN = -1;
+
+  private final Connection connection;
+
+  private int autoCommit;
+  private int readOnly;
+  private int isolation;
+
+  // Constructors____________________________________________________________________ //
+
+  ConnectionState(final Connection connection) {
+    this.connection = connection;
+    invalidate();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  void setAutoCommit(final boolean autoCommit) throws SQLException {
+    final int value = autoCommit ? 1 : 0;
+
+    if (this.autoCommit != value) {
+      this.autoCommit = UNKNOWN;
+      connection.setAutoCommit(autoCommit);
+      this.autoCommit = value;
+    }
+  }
+
+  void setReadOnly(final boolean readOnly) throws SQLException {
+    final int value = readOnly ? 1 : 0;
+
+    if (this.readOnly != value) {
+      this.readOnly = UNKNOWN;
+      connection.setReadOnly(readOnly);
+      this.readOnly = value;
+    }
+  }
+
+  void setTransactionIsolation(final int isolation) throws SQLException {
+    if (this.isolation != isolation) {
+      this.isolation = UNKNOWN;
+      connection.setTransactionIsolation(isolation);
+      this.isolation = isolation;
+    }
+  }
+
+  boolean isAutoCommit() throws SQLException {
+    if (autoCommit == UNKNOWN) {
+      autoCommit = connection.getAutoCommit() ? 1 : 0;
+    }
+
+    return autoCommit == 1;
+  }
+
+  void invalidate() {
+    autoCommit = UNKNOWN;
+    readOnly = UNKNOWN;
+    isolation = UNKNOWN;
+  }
+}
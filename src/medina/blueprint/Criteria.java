@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import medina.blueprint.AbstractEntity.ObjectScope;
+import medina.blueprint.AbstractEntity.Variable;
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * A query builder over the mapped fields of an entity.
+ *
+ * <p>
+ * Fields are referenced by their name or by their column label and are checked against the entity
+ * when the condition is added. Values are always bound as placeholders and the generated SQL is
+ * cached by the shape of the query, so the same <tt>PreparedStatement</tt> of the session is reused
+ * when only the values change. <tt>IN</tt> lists are padded to the next power of two, or to the
+ * next multiple of the <tt>IN</tt> list limit of the dialect, to keep the number of shapes small,
+ * and at most 1024 shapes are cached. Longer lists are split into several <tt>IN</tt> lists joined
+ * by <tt>OR</tt>. An offset is only applied along with a limit, and counting ignores the ordering.
+ * </p>
+ *
+ * <pre>
+ * List&lt;City&gt; cities = cityDao.criteria().equal("country", "BRA")
+ *     .greaterThan("population", 100000).orderByDescending("population").limit(10).list();
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class Criteria<E> {
+
+  private static final int MAX_STATEMENTS = 1024;
+
+  private static final String COUNT = "COUNT(*)";
+
+  private static final Map<String, String> statementMap = new ConcurrentHashMap<>();
+
+  private final Engine<E> engine;
+  private final Entity entity;
+
+  private final List<Condition> conditions;
+  private final List<String> orderColumns;
+  private final Collection<Object> values;
+  private final StringBuilder shape;
+
+  private int limit;
+  private int offset;
+
+  // Constructors____________________________________________________________________ //
+
+  Criteria(final Engine<E> engine) {
+    this.engine = engine;
+    this.entity = engine.getEntity();
+
+    conditions = new ArrayList<>();
+    orderColumns = new ArrayList<>();
+    values = new ArrayList<>();
+    shape = new StringBuilder(entity.getTable());
+
+    limit = -1;
+    offset = -1;
+  }
+
+  // Conditions______________________________________________________________________ //
+
+  public Criteria<E> equal(final String field, final Object value) {
+    return add(field, Operator.EQUAL, value);
+  }
+
+  public Criteria<E> notEqual(final String field, final Object value) {
+    return add(field, Operator.NOT_EQUAL, value);
+  }
+
+  public Criteria<E> greaterThan(final String field, final Object value) {
+    return add(field, Operator.GREATER_THAN, value);
+  }
+
+  public Criteria<E> greaterOrEqual(final String field, final Object value) {
+    return add(field, Operator.GREATER_OR_EQUAL, value);
+  }
+
+  public Criteria<E> lessThan(final String field, final Object value) {
+    return add(field, Operator.LESS_THAN, value);
+  }
+
+  public Criteria<E> lessOrEqual(final String field, final Object value) {
+    return add(field, Operator.LESS_OR_EQUAL, value);
+  }
+
+  public Criteria<E> between(final String field, final Object from, final Object to) {
+    return add(field, Operator.BETWEEN, from, to);
+  }
+
+  public Criteria<E> like(final String field, final String value) {
+    return add(field, Operator.LIKE, value);
+  }
+
+  public Criteria<E> like(final String field, final String value, final Match match) {
+    return add(field, Operator.LIKE, match.apply(value));
+  }
+
+  public Criteria<E> isNull(final String field) {
+    return add(field, Operator.IS_NULL);
+  }
+
+  public Criteria<E> isNotNull(final String field) {
+    return add(field, Operator.IS_NOT_NULL);
+  }
+
+  public Criteria<E> in(final String field, final Object... values) {
+    return in(field, Arrays.asList(values));
+  }
+
+  public Criteria<E> in(final String field, final Collection<?> values) {
+    if (values.isEmpty()) {
+      throw new BlueprintException("An IN condition needs at least one value.");
+    }
+
+    final int bucket = bucketOf(values.size(), engine.getDialect().getMaxInListSize());
+    final Condition condition = new Condition(label(field), Operator.IN, bucket);
+
+    conditions.add(condition);
+    shape.append('|').append(condition.column).append(':').append(Operator.IN.ordinal())
+        .append(':').append(bucket);
+
+    Object last = null;
+    final Iterator<?> iterator = values.iterator();
+
+    for (int index = 0; index < bucket; ++index) {
+      if (iterator.hasNext()) {
+        last = iterator.next();
+      }
+
+      this.values.add(last);
+    }
+
+    return this;
+  }
+
+  // Ordering and Limits_____________________________________________________________ //
+
+  public Criteria<E> orderBy(final String field) {
+    orderColumns.add(label(field));
+    shape.append("|o:").append(orderColumns.get(orderColumns.size() - 1));
+    return this;
+  }
+
+  public Criteria<E> orderByDescending(final String field) {
+    orderColumns.add(label(field) + " DESC");
+    shape.append("|o:").append(orderColumns.get(orderColumns.size() - 1));
+    return this;
+  }
+
+  public Criteria<E> limit(final int limit) {
+    this.limit = limit;
+    return this;
+  }
+
+  public Criteria<E> offset(final int offset) {
+    this.offset = offset;
+    return this;
+  }
+
+  // Execution_______________________________________________________________________ //
+
+  public List<E> list() throws BlueprintException {
+    prepare("*");
+
+    if (limit > 0) {
+      engine.setFetchSize(limit);
+    }
+
+    return engine.runSeveralRows();
+  }
+
+  public E single() throws BlueprintException {
+    final int limit = this.limit;
+    this.limit = 1;
+
+    try {
+      prepare("*");
+
+      return engine.runSingleRow();
+    } finally {
+      this.limit = limit;
+    }
+  }
+
+  public long count() throws BlueprintException {
+    final int limit = this.limit;
+    final int offset = this.offset;
+
+    this.limit = -1;
+    this.offset = -1;
+
+    try {
+      prepare(COUNT);
+
+      return engine.runLongColumn()[0];
+    } finally {
+      this.limit = limit;
+      this.offset = offset;
+    }
+  }
+
+  public String getStatement() {
+    return statementOf("*");
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void prepare(final String columns) {
+    if (offset > 0 && limit <= 0) {
+      throw new BlueprintException("An offset needs a limit.");
+    }
+
+    engine.setStatement(statementOf(columns));
+    engine.addAllPlaceholderValues(values);
+
+    if (limit > 0) {
+      if (offset > 0) {
+        if (engine.getDialect().isOffsetFirst()) {
+          engine.addPlaceholderValues(offset, limit);
+        } else {
+          engine.addPlaceholderValues(limit, offset);
+        }
+      } else {
+        engine.addPlaceholderValue(limit);
+      }
+    }
+  }
+
+  private String statementOf(final String columns) {
+    final String key =
+        engine.getDialect().getClass().getName() + '|' + columns + '|' + shape + '|'
+            + (limit > 0) + (offset > 0);
+
+    String sql = statementMap.get(key);
+
+    if (sql == null) {
+      sql = build(columns);
+
+      if (statementMap.size() < MAX_STATEMENTS) {
+        statementMap.put(key, sql);
+      }
+    }
+
+    return sql;
+  }
+
+  private String build(final String columns) {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("SELECT " + columns + " FROM " + entity.getTable());
+
+    int index = 0;
+    for (final Condition condition : conditions) {
+      if (index == 0) {
+        builder.append(" WHERE ");
+      } else {
+        builder.append(" AND ");
+      }
+
+      if (condition.operator == Operator.IN) {
+        appendIn(builder, condition, engine.getDialect().getMaxInListSize());
+      } else {
+        builder.append(condition.column).append(condition.operator.sql);
+      }
+
+      ++index;
+    }
+
+    if (columns.equals(COUNT)) {
+      return builder.toString();
+    }
+
+    index = 0;
+    for (final String column : orderColumns) {
+      if (index == 0) {
+        builder.append(" ORDER BY " + column);
+      } else {
+        builder.append(", " + column);
+      }
+
+      ++index;
+    }
+
+    if (limit > 0) {
+      builder.append(engine.getDialect().getLimitClause(offset > 0));
+    }
+
+    return builder.toString();
+  }
+
+  private Criteria<E> add(final String field, final Operator operator, final Object... values) {
+    final Condition condition = new Condition(label(field), operator, values.length);
+
+    conditions.add(condition);
+    shape.append('|').append(condition.column).append(':').append(operator.ordinal());
+
+    for (final Object value : values) {
+      this.values.add(value);
+    }
+
+    return this;
+  }
+
+  private String label(final String field) {
+    if (entity.hasIdentity() && entity.getIdentity().hasField()) {
+      if (field.equals(entity.getIdentity().getFieldName())) {
+        return entity.getIdentity().getLabel();
+      }
+    }
+
+    if (entity.hasColumn()) {
+      for (final Variable variable : entity.getColumns()) {
+        if (field.equals(variable.getFieldName())) {
+          return variable.getLabel();
+        }
+      }
+    }
+
+    if (entity.hasEntityObject()) {
+      for (final ObjectScope variable : entity.getEntityObjects()) {
+        if (field.equals(variable.getFieldName()) || field.equalsIgnoreCase(variable.getLabel())) {
+          return variable.getLabel();
+        }
+      }
+    }
+
+    final Variable variable = entity.getVariable(field);
+
+    if (variable == null) {
+      throw new BlueprintException("No field or column '" + field + "' is mapped on "
+          + entity.getEntityClass().getSimpleName() + ".");
+    }
+
+    return variable.getLabel();
+  }
+
+  private static void appendIn(final StringBuilder builder, final Condition condition,
+      final int max) {
+    final boolean split = condition.count > max;
+
+    if (split) {
+      builder.append('(');
+    }
+
+    for (int from = 0; from < condition.count; from += max) {
+      if (from > 0) {
+        builder.append(" OR ");
+      }
+
+      builder.append(condition.column).append(" IN (?");
+
+      for (int count = from + 1; count < Math.min(from + max, condition.count); ++count) {
+        builder.append(", ?");
+      }
+
+      builder.append(')');
+    }
+
+    if (split) {
+      builder.append(')');
+    }
+  }
+
+  private static int bucketOf(final int size, final int max) {
+    if (size > max) {
+      return (size + max - 1) / max * max;
+    }
+
+    return size == 1 ? 1 : Math.min(Integer.highestOneBit(size - 1) << 1, max);
+  }
+
+  // Public Enums____________________________________________________________________ //
+
+  public enum Match {
+    EXACT, PREFIX, SUFFIX, ANYWHERE;
+
+    String apply(final String value) {
+      switch (this) {
+        case PREFIX:
+          return value + "%";
+        case SUFFIX:
+          return "%" + value;
+        case ANYWHERE:
+          return "%" + value + "%";
+        default:
+          return value;
+      }
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private enum Operator {
+    EQUAL(" = ?"), NOT_EQUAL(" <> ?"), GREATER_THAN(" > ?"), GREATER_OR_EQUAL(" >= ?"),
+    LESS_THAN(" < ?"), LESS_OR_EQUAL(" <= ?"), BETWEEN(" BETWEEN ? AND ?"), LIKE(" LIKE ?"),
+    IS_NULL(" IS NULL"), IS_NOT_NULL(" IS NOT NULL"), IN(null);
+
+    private final String sql;
+
+    private Operator(final String sql) {
+      this.sql = sql;
+    }
+  }
+
+  private static final class Condition {
+
+    private final String column;
+    private final Operator operator;
+    private final int count;
+
+    private Condition(final String column, final Operator operator, final int count) {
+      this.column = column;
+      this.operator = operator;
+      this.count = count;
+    }
+  }
+}
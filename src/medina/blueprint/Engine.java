@@ -13,9 +13,13 @@
  */
 package medina.blueprint;
 
+import java.lang.reflect.Type;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -25,30 +29,43 @@ import medina.blueprint.AbstractEntity.ListScope;
 import medina.blueprint.AbstractEntity.ObjectScope;
 import medina.blueprint.AbstractEntity.Variable;
 import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+import medina.blueprint.monitor.AssociationType;
+import medina.blueprint.monitor.CacheType;
+import medina.blueprint.monitor.Monitors;
 
 class Engine<E> extends AbstractEngine<E> {
 
-  private PriorityQueue<EntityObjectAssociation> objectsAssociations;
-  private Collection<SimpleEntityAssociation> listAssociations;
-  private Collection<SimpleEntityAssociation> inheritedAssociations;
+  private static final int SNAPSHOT_FETCH_SIZE = 500;
 
   private Entity defaultEntity;
-  private Entity currentEntity;
 
   // Constructors____________________________________________________________________ //
 
   Engine(final SessionManager session) {
     super(session);
-
-    objectsAssociations = new PriorityQueue<>(100);
-    listAssociations = new ArrayList<>();
-    inheritedAssociations = new ArrayList<>();
   }
 
   // Private Methods_________________________________________________________________ //
 
+  private int getFillShape() {
+    return (objectsSettings.isFillObjects() ? 1 : 0) | (objectsSettings.isFillSubObjects() ? 2 : 0)
+        | (listsSettings.isFillLists() ? 4 : 0) | (listsSettings.isFillSubLists() ? 8 : 0);
+  }
+
   private Object fillObject(final Object object, final boolean fillObjects, final boolean fillLists)
       throws SQLException {
+    final EngineContext context = context();
+    final Entity currentEntity = context.currentEntity;
+    final ResultSetTranslator resultSetTranslator = context.resultSetTranslator;
+    final boolean timed = context.fetchedSql != null;
+
+    if (timed && context.hydrated == 0) {
+      Monitors.hydrating(context.fetchedSql, currentEntity.clazz);
+    }
+
+    final long start = timed ? System.nanoTime() : 0;
 
     try {
       if (currentEntity.hasIdentity() && currentEntity.getIdentity().hasField()) {
@@ -68,62 +85,69 @@ class Engine<E> extends AbstractEngine<E> {
       if (currentEntity.hasEntityObject() && fillObjects) {
         for (final ObjectScope entityObject : currentEntity.getEntityObjects()) {
           if (resultSetTranslator.hasColumn(entityObject.label)) {
-            objectsAssociations
+            context.objectsAssociations
                 .add(resultSetTranslator.tranlateToAssociation(entityObject, object));
           }
         }
       }
 
       if (currentEntity.hasIdentity() && currentEntity.getIdentity().isInherited()) {
-        inheritedAssociations.add(new SimpleEntityAssociation(object,
+        context.inheritedAssociations.add(new SimpleEntityAssociation(object,
             currentEntity.getIdentity().field.get(object)));
       }
 
       if (currentEntity.hasEntityList() && fillLists) {
-        listAssociations.add(new SimpleEntityAssociation(object, currentEntity.getIdentity().field
-            .get(object)));
+        context.listAssociations.add(new SimpleEntityAssociation(object,
+            currentEntity.getIdentity().field.get(object)));
       }
 
       return object;
     } catch (IllegalAccessException | IllegalArgumentException e) {
       throw new BlueprintException(e);
+    } finally {
+      if (timed) {
+        ++context.hydrated;
+        context.hydrationTime += System.nanoTime() - start;
+      }
     }
   }
 
   private void fillSuperClasses() throws SQLException {
+    final EngineContext context = context();
 
-    if (!currentEntity.hasSuperEntityClass()) {
+    if (!context.currentEntity.hasSuperEntityClass()) {
       return;
     }
 
-    final Entity defaultCurrent = currentEntity;
+    final Entity defaultCurrent = context.currentEntity;
 
-    while (currentEntity.hasSuperEntityClass()) {
-      currentEntity = SessionManager.getEntity(currentEntity.clazz.getSuperclass());
+    while (context.currentEntity.hasSuperEntityClass()) {
+      context.currentEntity =
+          SessionManager.getEntity(context.currentEntity.clazz.getSuperclass());
 
-      if (objectsSettings.containsRestrictions(currentEntity.clazz)) {
+      if (objectsSettings.containsRestrictions(context.currentEntity.clazz)) {
 
-        setStatement(new EngineStatementTool(currentEntity).select(
-            objectsSettings.getPermissions(currentEntity.clazz)).where(
-            currentEntity.getIdentity().getLabel()));
+        setStatement(new EngineStatementTool(context.currentEntity).select(
+            objectsSettings.getPermissions(context.currentEntity.clazz)).where(
+            context.currentEntity.getIdentity().getLabel()));
 
-        openStatement();
+        openQueryStatement();
       } else {
 
-        setStatement(new EngineStatementTool(currentEntity).select().where(
-            currentEntity.getIdentity().getLabel()));
+        setStatement(new EngineStatementTool(context.currentEntity).select().where(
+            context.currentEntity.getIdentity().getLabel()));
 
-        openStatement();
+        openQueryStatement();
       }
 
-      final Collection<SimpleEntityAssociation> associations = inheritedAssociations;
-      inheritedAssociations = new ArrayList<>();
+      final Collection<SimpleEntityAssociation> associations = context.inheritedAssociations;
+      context.inheritedAssociations = new ArrayList<>();
 
       for (final SimpleEntityAssociation association : associations) {
         addPlaceholderValue(association.code);
         openResultSet();
 
-        if (resultSet.next()) {
+        if (nextRow(context)) {
           fillObject(association.next, objectsSettings.isFillObjects(), listsSettings.isFillLists());
         }
 
@@ -131,19 +155,31 @@ class Engine<E> extends AbstractEngine<E> {
       }
     }
 
-    currentEntity = defaultCurrent;
+    context.currentEntity = defaultCurrent;
   }
 
   private void fillEntityObjects() throws SQLException {
+    final EngineContext context = context();
 
-    if (objectsAssociations.isEmpty()) {
+    if (context.objectsAssociations.isEmpty()) {
       return;
     }
 
-    final PriorityQueue<EntityObjectAssociation> associations = objectsAssociations;
-    objectsAssociations = new PriorityQueue<>(100);
+    final PriorityQueue<EntityObjectAssociation> associations = context.objectsAssociations;
+    context.objectsAssociations = new PriorityQueue<>(100);
+
+    final boolean monitored = Monitors.isActive();
+    final Class<?> owner = associations.peek().variable.field.getDeclaringClass();
+    final int size = associations.size();
+
+    if (monitored) {
+      Monitors.associationsFilling(owner, AssociationType.OBJECTS);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
 
     EntityObjectAssociation previous = null;
+    EntitySnapshot snapshot = null;
 
     Object result = null;
     final Set<Entity> inherited = new HashSet<>();
@@ -153,33 +189,39 @@ class Engine<E> extends AbstractEngine<E> {
 
       try {
         if (previous == null || !current.variable.label.equals(previous.variable.label)) {
-          currentEntity = SessionManager.getEntity(current.variable.field.getType());
-
-          if (currentEntity.hasSuperEntityClass()) {
-            inherited.add(currentEntity);
+          context.currentEntity = SessionManager.getEntity(current.variable.field.getType());
+          snapshot = null;
+
+          if (EntitySnapshot.isCached(context.currentEntity)
+              && !objectsSettings.containsRestrictions(context.currentEntity)) {
+            snapshot = getSnapshot(context.currentEntity);
+          } else if (context.currentEntity.hasSuperEntityClass()) {
+            inherited.add(context.currentEntity);
           }
 
-          if (objectsSettings.containsRestrictions(currentEntity)) {
-            setStatement(new EngineStatementTool(currentEntity).select(
-                objectsSettings.getPermissions(currentEntity)).where(
-                currentEntity.getIdentity().getLabel()));
-
-            openStatement();
-          } else {
-            setStatement(new EngineStatementTool(currentEntity).select().where(
-                currentEntity.getIdentity().getLabel()));
-
-            openStatement();
+          if (snapshot == null) {
+            if (objectsSettings.containsRestrictions(context.currentEntity)) {
+              setStatement(new EngineStatementTool(context.currentEntity).select(
+                  objectsSettings.getPermissions(context.currentEntity)).where(
+                  context.currentEntity.getIdentity().getLabel()));
+            } else {
+              setStatement(new EngineStatementTool(context.currentEntity).select().where(
+                  context.currentEntity.getIdentity().getLabel()));
+            }
+
+            openQueryStatement();
           }
         }
 
-        if (previous == null || !current.isCodeEquals(previous)
+        if (snapshot != null) {
+          result = snapshot.get(current.code);
+        } else if (previous == null || !current.isCodeEquals(previous)
             || !current.variable.getLabel().equals(previous.variable.getLabel())) {
           addPlaceholderValue(current.code);
           openResultSet();
 
-          if (resultSet.next()) {
-            result = currentEntity.clazz.newInstance();
+          if (nextRow(context)) {
+            result = context.currentEntity.clazz.newInstance();
             fillObject(result, objectsSettings.isFillSubObjects(), listsSettings.isFillLists());
           } else {
             result = null;
@@ -192,7 +234,7 @@ class Engine<E> extends AbstractEngine<E> {
           current.variable.field.set(current.next, result);
         }
 
-      } catch (InstantiationException | IllegalAccessException e) {
+      } catch (ReflectiveOperationException e) {
         throw new BlueprintException(e);
       }
 
@@ -204,22 +246,85 @@ class Engine<E> extends AbstractEngine<E> {
     }
 
     for (final Entity entity : inherited) {
-      currentEntity = entity;
+      context.currentEntity = entity;
       fillSuperClasses();
     }
 
-    currentEntity = defaultEntity;
+    context.currentEntity = defaultEntity;
+
+    if (monitored) {
+      Monitors.associationsFilled(owner, AssociationType.OBJECTS, size, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Returns the current snapshot of a cached entity, loading its whole table from the primary when
+   * there is none. Returns null inside of a transaction, whose uncommitted writes must not be
+   * shared, when there is no snapshot to use.
+   */
+  private EntitySnapshot getSnapshot(final Entity entity)
+      throws SQLException, ReflectiveOperationException {
+    EntitySnapshot snapshot = EntitySnapshot.get(entity);
+
+    if (Monitors.isActive()) {
+      Monitors.cacheAccessed(CacheType.SNAPSHOT, snapshot != null);
+    }
+
+    if (snapshot != null || getSession().isTransactional()) {
+      return snapshot;
+    }
+
+    final EngineContext context = context();
+    final long version = EntitySnapshot.versionOf(entity);
+    final int fetch = context.fetch;
+    final List<Object> rows = new ArrayList<>();
+
+    try {
+      context.fetch = SNAPSHOT_FETCH_SIZE;
+
+      setStatement(new EngineStatementTool(entity).select());
+      openStatement();
+      openResultSet();
+
+      while (nextRow(context)) {
+        rows.add(fillObject(entity.clazz.getDeclaredConstructor().newInstance(), false, false));
+      }
+
+      closeResultSet();
+    } finally {
+      context.fetch = fetch;
+    }
+
+    snapshot = EntitySnapshot.create(entity, version, rows);
+
+    if (Loggers.isEnabled(Level.DEBUG)) {
+      Loggers.log(Level.DEBUG, "Loaded the snapshot of " + rows.size() + " "
+          + entity.clazz.getSimpleName() + " rows.");
+    }
+
+    return snapshot;
   }
 
   private void fillEntityLists() throws SQLException {
-    if (!currentEntity.hasEntityList()) {
+    final EngineContext context = context();
+
+    if (!context.currentEntity.hasEntityList()) {
       return;
     }
 
-    final Collection<SimpleEntityAssociation> associations = listAssociations;
-    listAssociations = new ArrayList<>();
+    final Collection<SimpleEntityAssociation> associations = context.listAssociations;
+    context.listAssociations = new ArrayList<>();
 
-    for (final ListScope entityList : currentEntity.getEntityLists()) {
+    final boolean monitored = Monitors.isActive();
+    final Class<?> owner = context.currentEntity.clazz;
+
+    if (monitored) {
+      Monitors.associationsFilling(owner, AssociationType.LISTS);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
+
+    for (final ListScope entityList : context.currentEntity.getEntityLists()) {
       final Class<?> genericClazz = (Class<?>) entityList.getGenericType();
 
       if (listsSettings.isClassRestricted(genericClazz)) {
@@ -227,14 +332,15 @@ class Engine<E> extends AbstractEngine<E> {
       }
 
       final String label =
-          listsSettings.restrictColumnByObject(genericClazz, currentEntity.getEntityClass());
+          listsSettings.getColumnByObject(genericClazz,
+              context.currentEntity.getEntityClass());
 
-      currentEntity = SessionManager.getEntity(genericClazz);
+      context.currentEntity = SessionManager.getEntity(genericClazz);
 
-      setStatement(new EngineStatementTool(currentEntity).select(
-          listsSettings.getPermissions(genericClazz)).where(label));
+      setStatement(new EngineStatementTool(context.currentEntity).select(
+          listsSettings.getPermissions(genericClazz, label)).where(label));
 
-      openStatement();
+      openQueryStatement();
 
       try {
         for (final SimpleEntityAssociation association : associations) {
@@ -243,8 +349,8 @@ class Engine<E> extends AbstractEngine<E> {
           addPlaceholderValue(association.code);
           openResultSet();
 
-          while (resultSet.next()) {
-            result.add(fillObject(currentEntity.clazz.newInstance(),
+          while (nextRow(context)) {
+            result.add(fillObject(context.currentEntity.clazz.newInstance(),
                 objectsSettings.isFillObjects(), listsSettings.isFillSubLists()));
           }
 
@@ -256,11 +362,19 @@ class Engine<E> extends AbstractEngine<E> {
         throw new BlueprintException(e);
       }
 
-      currentEntity = defaultEntity;
+      context.currentEntity = defaultEntity;
+    }
+
+    if (monitored) {
+      Monitors.associationsFilled(owner, AssociationType.LISTS, associations.size(),
+          System.nanoTime() - start);
     }
   }
 
   private void fillRemaining() throws SQLException {
+    final boolean monitored = Monitors.isActive();
+    final long start = monitored ? System.nanoTime() : 0;
+
     fillSuperClasses();
     fillEntityObjects();
 
@@ -268,21 +382,24 @@ class Engine<E> extends AbstractEngine<E> {
       fillEntityLists();
       fillEntityObjects();
     }
+
+    if (monitored) {
+      Monitors.filled(System.nanoTime() - start);
+    }
   }
 
   // Package Methods_________________________________________________________________ //
 
   final void setDefaultEntity(final Class<?> clazz) {
     defaultEntity = SessionManager.getEntity(clazz);
-    setCurrentEntity(defaultEntity);
   }
 
   final void setCurrentEntity(final Class<?> clazz) {
-    currentEntity = SessionManager.getEntity(clazz);
+    context().currentEntity = SessionManager.getEntity(clazz);
   }
 
   final void setCurrentEntity(final Entity entity) {
-    currentEntity = entity;
+    context().currentEntity = entity;
   }
 
   // Protected Methods_______________________________________________________________ //
@@ -294,20 +411,50 @@ class Engine<E> extends AbstractEngine<E> {
 
   @Override
   protected final E runSingleRow() throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
     try {
+      final QueryCache cache = getReadableQueryCache();
+      QueryCache.Key key = null;
+      long[] versions = null;
+
+      if (cache != null) {
+        key = cache.key(this, context.sql, getFillShape(), context.placeholderValues);
+        final List<Object> cached = cache.get(key);
+
+        if (cached != null) {
+          context.placeholderValues.clear();
+
+          @SuppressWarnings("unchecked")
+          final
+          E row = cached.isEmpty() ? null : (E) cached.get(0);
+
+          return row;
+        }
+
+        versions = cache.versions(getCacheTables());
+      }
+
       setFetchSize(1);
       runQuery();
 
       Object object = null;
 
-      if (resultSet.next()) {
+      if (nextRow(context)) {
         object = defaultEntity.clazz.newInstance();
 
         fillObject(object, objectsSettings.isFillObjects(), listsSettings.isFillLists());
       }
 
+      closeResultSet();
       fillRemaining();
 
+      if (cache != null) {
+        cache.put(key, getCacheTables(), versions, object == null
+            ? Collections.emptyList() : Collections.singletonList(object));
+      }
+
       @SuppressWarnings("unchecked")
       final
       E row = (E) object;
@@ -316,18 +463,42 @@ class Engine<E> extends AbstractEngine<E> {
     } catch (SQLException | InstantiationException | IllegalAccessException e) {
       throw new BlueprintException(e);
     } finally {
-      closeResultSet();
+      endCall(monitored);
     }
   }
 
   @Override
   protected final List<E> runSeveralRows() throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
     try {
+      final QueryCache cache = getReadableQueryCache();
+      QueryCache.Key key = null;
+      long[] versions = null;
+
+      if (cache != null) {
+        key = cache.key(this, context.sql, getFillShape(), context.placeholderValues);
+        final List<Object> cached = cache.get(key);
+
+        if (cached != null) {
+          context.placeholderValues.clear();
+
+          @SuppressWarnings("unchecked")
+          final
+          List<E> rows = (List<E>) new ArrayList<>(cached);
+
+          return rows;
+        }
+
+        versions = cache.versions(getCacheTables());
+      }
+
       runQuery();
 
       final List<Object> collection = new ArrayList<>();
 
-      while (resultSet.next()) {
+      while (nextRow(context)) {
         collection.add(fillObject(defaultEntity.clazz.newInstance(),
             objectsSettings.isFillObjects(), listsSettings.isFillLists()));
       }
@@ -336,8 +507,13 @@ class Engine<E> extends AbstractEngine<E> {
         setFetchSize(collection.size());
       }
 
+      closeResultSet();
       fillRemaining();
 
+      if (cache != null) {
+        cache.put(key, getCacheTables(), versions, collection);
+      }
+
       @SuppressWarnings("unchecked")
       final
       List<E> rows = (List<E>) collection;
@@ -346,55 +522,63 @@ class Engine<E> extends AbstractEngine<E> {
     } catch (SQLException | InstantiationException | IllegalAccessException e) {
       throw new BlueprintException(e);
     } finally {
-      closeResultSet();
+      endCall(monitored);
     }
   }
 
   @Override
   protected final void nextSingleRow(final ResultSetListener listener) throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
     try {
       setFetchSize(1);
       runQuery();
 
-      if (resultSet.next()) {
+      if (nextRow(context)) {
         @SuppressWarnings("unchecked")
         final E row = (E) defaultEntity.clazz.newInstance();
 
         fillObject(row, objectsSettings.isFillObjects(), listsSettings.isFillLists());
 
-        listener.performAction(resultSet, row);
+        listener.performAction(context.resultSet, row);
       }
 
+      closeResultSet();
       fillRemaining();
 
     } catch (SQLException | InstantiationException | IllegalAccessException e) {
       throw new BlueprintException(e);
     } finally {
-      closeResultSet();
+      endCall(monitored);
     }
   }
   
   @Override
   protected <T> T nextSingleRow(final ResultSetTypeListener<T> listener) throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
     try {
       setFetchSize(1);
       runQuery();
 
-      if (resultSet.next()) {
+      if (nextRow(context)) {
         @SuppressWarnings("unchecked")
         final E row = (E) defaultEntity.clazz.newInstance();
 
         fillObject(row, objectsSettings.isFillObjects(), listsSettings.isFillLists());
 
-        listener.performAction(resultSet, row);
+        listener.performAction(context.resultSet, row);
       }
 
+      closeResultSet();
       fillRemaining();
 
     } catch (SQLException | InstantiationException | IllegalAccessException e) {
       throw new BlueprintException(e);
     } finally {
-      closeResultSet();
+      endCall(monitored);
     }
     return listener.getReturn();
   };
@@ -402,25 +586,176 @@ class Engine<E> extends AbstractEngine<E> {
 
   @Override
   protected final void nextSeveralRows(final ResultSetListener listener) throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
     try {
       runQuery();
 
-      while (resultSet.next()) {
+      while (nextRow(context)) {
         @SuppressWarnings("unchecked")
         final
         E row = (E) defaultEntity.clazz.newInstance();
 
         fillObject(row, objectsSettings.isFillObjects(), listsSettings.isFillLists());
 
-        listener.performAction(resultSet, row);
+        listener.performAction(context.resultSet, row);
       }
 
+      closeResultSet();
       fillRemaining();
 
     } catch (SQLException | InstantiationException | IllegalAccessException e) {
       throw new BlueprintException(e);
     } finally {
-      closeResultSet();
+      endCall(monitored);
+    }
+  }
+
+  @Override
+  protected final <D> List<D> runProjection(final Class<D> type) throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
+    try {
+      runQuery();
+
+      final Projection projection = Projection.of(type);
+      final int[] indexes = new int[projection.labels.length];
+
+      for (int index = 0; index < indexes.length; ++index) {
+        indexes[index] = context.resultSetTranslator.indexOf(projection.labels[index]);
+      }
+
+      final List<D> rows = new ArrayList<>();
+
+      while (nextRow(context)) {
+        final D row = type.getDeclaredConstructor().newInstance();
+
+        for (int index = 0; index < indexes.length; ++index) {
+          if (indexes[index] > 0) {
+            final Object value =
+                context.resultSetTranslator.translate(projection.fields[index].getType(),
+                    projection.genericTypes[index], indexes[index]);
+
+            if (value != null) {
+              projection.fields[index].set(row, value);
+            }
+          }
+        }
+
+        rows.add(row);
+      }
+
+      return rows;
+    } catch (SQLException | ReflectiveOperationException e) {
+      throw new BlueprintException(e);
+    } finally {
+      endCall(monitored);
+    }
+  }
+
+  @Override
+  protected final List<Object[]> runSeveralArrays() throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
+    try {
+      runQuery();
+
+      final ResultSetMetaData metaData = context.resultSet.getMetaData();
+      final Variable[] variables = new Variable[metaData.getColumnCount()];
+      final Type[] genericTypes = new Type[variables.length];
+
+      for (int index = 0; index < variables.length; ++index) {
+        variables[index] = defaultEntity.getVariable(metaData.getColumnLabel(index + 1));
+
+        if (variables[index] != null) {
+          genericTypes[index] = EngineUtil.searchGenericType(variables[index].field);
+        }
+      }
+
+      final List<Object[]> rows = new ArrayList<>();
+
+      while (nextRow(context)) {
+        final Object[] row = new Object[variables.length];
+
+        for (int index = 0; index < variables.length; ++index) {
+          if (variables[index] == null) {
+            row[index] = context.resultSet.getObject(index + 1);
+          } else {
+            row[index] =
+                context.resultSetTranslator.translate(variables[index].field.getType(),
+                    genericTypes[index], index + 1);
+          }
+
+          if (context.resultSet.wasNull()) {
+            row[index] = null;
+          }
+        }
+
+        rows.add(row);
+      }
+
+      return rows;
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    } finally {
+      endCall(monitored);
+    }
+  }
+
+  @Override
+  protected final long[] runLongColumn() throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
+    try {
+      runQuery();
+
+      long[] values = new long[Math.max(getFetchSize(), 16)];
+      int size = 0;
+
+      while (nextRow(context)) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+
+        values[size++] = context.resultSet.getLong(1);
+      }
+
+      return Arrays.copyOf(values, size);
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    } finally {
+      endCall(monitored);
+    }
+  }
+
+  @Override
+  protected final int[] runIntColumn() throws BlueprintException {
+    final EngineContext context = context();
+    final boolean monitored = startCall();
+
+    try {
+      runQuery();
+
+      int[] values = new int[Math.max(getFetchSize(), 16)];
+      int size = 0;
+
+      while (nextRow(context)) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+
+        values[size++] = context.resultSet.getInt(1);
+      }
+
+      return Arrays.copyOf(values, size);
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    } finally {
+      endCall(monitored);
     }
   }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.PriorityQueue;
+
+/**
+ * The state of the calls an engine runs on one thread.
+ *
+ * <p>
+ * An engine keeps only its configuration in fields, and everything a call builds up while it runs,
+ * the statement, its placeholder values, the open result set, the entity being filled and the
+ * pending associations, lives in the context of the calling thread. A single DAO instance can
+ * therefore be used by many threads at once, each one on its own session.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class EngineContext {
+
+  final StatementTranslator statementTranslator;
+  final ResultSetTranslator resultSetTranslator;
+
+  Collection<Object> placeholderValues;
+  Collection<Object> boundValues;
+
+  SessionManager session;
+  PreparedStatement statement;
+  ResultSet resultSet;
+
+  String sql;
+  int fetch;
+  boolean streaming;
+
+  long rows;
+  String fetchedSql;
+  long fetchStart;
+  long hydrated;
+  long hydrationTime;
+
+  PriorityQueue<EntityObjectAssociation> objectsAssociations;
+  Collection<SimpleEntityAssociation> listAssociations;
+  Collection<SimpleEntityAssociation> inheritedAssociations;
+
+  Entity currentEntity;
+  int depth;
+
+  // Constructors____________________________________________________________________ //
+
+  EngineContext(final Entity entity) {
+    statementTranslator = new StatementTranslator();
+    resultSetTranslator = new ResultSetTranslator();
+
+    placeholderValues = new ArrayList<>();
+    boundValues = new ArrayList<>();
+
+    objectsAssociations = new PriorityQueue<>(100);
+    listAssociations = new ArrayList<>();
+    inheritedAssociations = new ArrayList<>();
+
+    currentEntity = entity;
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  void reset(final Entity entity) {
+    placeholderValues.clear();
+    boundValues.clear();
+    objectsAssociations.clear();
+    listAssociations.clear();
+    inheritedAssociations.clear();
+
+    currentEntity = entity;
+    fetchedSql = null;
+
+    session = null;
+    statement = null;
+    resultSet = null;
+    sql = null;
+
+    statementTranslator.setStatement(null);
+    resultSetTranslator.release();
+  }
+}
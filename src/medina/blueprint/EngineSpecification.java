@@ -18,6 +18,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
 
+import medina.blueprint.dialect.Dialect;
 import medina.blueprint.exception.BlueprintException;
 import medina.blueprint.util.StatementBuilder;
 
@@ -26,6 +27,8 @@ abstract class EngineSpecification<E> {
 
   protected abstract Entity getEntity();
 
+  protected abstract Dialect getDialect();
+
   protected abstract void setStatement(String sql);
 
   protected abstract void setStatement(StatementBuilder<E> builder);
@@ -58,6 +61,8 @@ abstract class EngineSpecification<E> {
 
   public abstract int getFetchSize();
 
+  protected abstract void setStreaming(boolean streaming);
+
   // Query Methods___________________________________________________________________ //
 
   protected abstract E runSingleRow() throws BlueprintException;
@@ -70,6 +75,16 @@ abstract class EngineSpecification<E> {
 
   protected abstract void nextSeveralRows(ResultSetListener listener) throws BlueprintException;
 
+  // Projection Methods______________________________________________________________ //
+
+  protected abstract <D> List<D> runProjection(Class<D> type) throws BlueprintException;
+
+  protected abstract List<Object[]> runSeveralArrays() throws BlueprintException;
+
+  protected abstract long[] runLongColumn() throws BlueprintException;
+
+  protected abstract int[] runIntColumn() throws BlueprintException;
+
   // Protected Interfaces____________________________________________________________ //
 
   protected abstract class ResultSetListener {
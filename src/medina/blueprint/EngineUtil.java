@@ -53,4 +53,12 @@ class EngineUtil {
 
     return null;
   }
+
+  /**
+   * Returns the value an identity is matched by, where numbers of any type are compared as longs,
+   * the same way the associations of the engine are.
+   */
+  static Object identityKey(final Object identity) {
+    return identity instanceof Number ? Long.valueOf(((Number) identity).longValue()) : identity;
+  }
 }
@@ -14,10 +14,9 @@
 package medina.blueprint;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import medina.blueprint.AbstractEntity.EntityListener;
 import medina.blueprint.AbstractEntity.ObjectScope;
@@ -25,13 +24,13 @@ import medina.blueprint.dao.RestrictionsSettings;
 
 class EntityRestrictions implements RestrictionsSettings {
 
-  private Map<Class<?>, Collection<String>> restrictions;
-  private Collection<Class<?>> resctrictedClasses;
+  private volatile Map<Class<?>, Collection<String>> restrictions;
+  private volatile Collection<Class<?>> resctrictedClasses;
 
   EntityRestrictions() {
 
-    restrictions = new HashMap<>();
-    resctrictedClasses = new HashSet<>();
+    restrictions = new ConcurrentHashMap<>();
+    resctrictedClasses = ConcurrentHashMap.newKeySet();
   }
 
   @Override
@@ -103,12 +102,12 @@ class EntityRestrictions implements RestrictionsSettings {
 
   @Override
   public void resetRestrictions() {
-    restrictions = new HashMap<>();
+    restrictions = new ConcurrentHashMap<>();
   }
 
   @Override
   public void resetClassRestrictions() {
-    resctrictedClasses = new HashSet<>();
+    resctrictedClasses = ConcurrentHashMap.newKeySet();
   }
 
   @Override
@@ -117,12 +116,19 @@ class EntityRestrictions implements RestrictionsSettings {
     resetClassRestrictions();
   }
 
-  String restrictColumnByObject(final Class<?> resquester, final Class<?> clazz) {
+  /**
+   * Returns the column of the requester referencing the given class, which is left out of the
+   * permissions of the requester without changing its restrictions.
+   */
+  String getColumnByObject(final Class<?> resquester, final Class<?> clazz) {
     final Entity entityRequester = SessionManager.getEntity(resquester);
 
+    if (entityRequester.objects == null) {
+      return null;
+    }
+
     for (final ObjectScope entityObject : entityRequester.objects) {
       if (entityObject.field.getType().equals(clazz)) {
-        restrictColumns(resquester, entityObject.label);
         return entityObject.label;
       }
     }
@@ -135,28 +141,35 @@ class EntityRestrictions implements RestrictionsSettings {
   }
 
   Collection<String> getPermissions(final Class<?> clazz) {
+    return getPermissions(clazz, null);
+  }
 
-    if (containsRestrictions(clazz)) {
+  /**
+   * Returns the permitted columns of the class also leaving out the excluded one, or null if none
+   * is restricted.
+   */
+  Collection<String> getPermissions(final Class<?> clazz, final String excluded) {
+    final Collection<String> restrictions = this.restrictions.get(clazz);
 
-      final Entity entity = SessionManager.getEntity(clazz);
+    if (restrictions == null && excluded == null) {
+      return null;
+    }
 
-      final Collection<String> restrictions = this.restrictions.get(clazz);
-      final Collection<String> permissions = new LinkedHashSet<>();
+    final Entity entity = SessionManager.getEntity(clazz);
+    final Collection<String> permissions = new LinkedHashSet<>();
 
-      entity.nextSeveralVariables(new EntityListener() {
+    entity.nextSeveralVariables(new EntityListener() {
 
-        @Override
-        public void performAction(final EntityEvent event) {
+      @Override
+      public void performAction(final EntityEvent event) {
+        final String label = event.getLabel();
 
-          if (!restrictions.contains(event.getLabel())) {
-            permissions.add(event.getLabel());
-          }
+        if ((restrictions == null || !restrictions.contains(label)) && !label.equals(excluded)) {
+          permissions.add(label);
         }
-      });
-
-      return permissions;
-    }
+      }
+    });
 
-    return null;
+    return permissions;
   }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import medina.blueprint.entity.EntityCached;
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * An immutable, identity indexed copy of the whole table of an {@link EntityCached} entity.
+ *
+ * <p>
+ * Integer identities spanning a small range are indexed by an array, any other identity by a map.
+ * A snapshot is current while the version of its table, read before it was loaded, is unchanged
+ * and its refresh interval has not elapsed.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class EntitySnapshot {
+
+  private static final int MIN_DENSE_SPAN = 1024;
+  private static final int DENSE_SPAN_FACTOR = 4;
+
+  private static final ConcurrentMap<Class<?>, EntitySnapshot> snapshots;
+
+  private final String table;
+  private final long version;
+  private final long expiresAt;
+
+  private final Object[] dense;
+  private final long offset;
+  private final Map<Object, Object> sparse;
+
+  static {
+    snapshots = new ConcurrentHashMap<>();
+  }
+
+  // Constructors____________________________________________________________________ //
+
+  private EntitySnapshot(final Entity entity, final long version, final List<Object> rows)
+      throws IllegalAccessException {
+    this.table = QueryCache.normalize(entity.getTable());
+    this.version = version;
+
+    final long refresh = entity.clazz.getAnnotation(EntityCached.class).refresh();
+    expiresAt = refresh == 0 ? 0 : (System.nanoTime() + TimeUnit.SECONDS.toNanos(refresh)) | 1;
+
+    final Class<?> type = entity.getIdentity().field.getType();
+
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+
+    if (isDenseType(type)) {
+      for (final Object row : rows) {
+        final long id = ((Number) entity.getIdentityValue(row)).longValue();
+        min = Math.min(min, id);
+        max = Math.max(max, id);
+      }
+    }
+
+    if (!rows.isEmpty() && isDenseType(type)
+        && max - min < Math.max(MIN_DENSE_SPAN, (long) rows.size() * DENSE_SPAN_FACTOR)) {
+      dense = new Object[(int) (max - min + 1)];
+      offset = min;
+      sparse = null;
+
+      for (final Object row : rows) {
+        dense[(int) (((Number) entity.getIdentityValue(row)).longValue() - min)] = row;
+      }
+    } else {
+      dense = null;
+      offset = 0;
+      sparse = new HashMap<>(rows.size() * 4 / 3 + 1);
+
+      for (final Object row : rows) {
+        sparse.put(EngineUtil.identityKey(entity.getIdentityValue(row)), row);
+      }
+    }
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  static boolean isCached(final Entity entity) {
+    return entity.clazz.isAnnotationPresent(EntityCached.class);
+  }
+
+  /**
+   * Returns the current snapshot of an entity, or null if it must be loaded.
+   */
+  static EntitySnapshot get(final Entity entity) {
+    final EntitySnapshot snapshot = snapshots.get(entity.clazz);
+
+    if (snapshot == null) {
+      return null;
+    }
+
+    if (!snapshot.isCurrent()) {
+      snapshots.remove(entity.clazz, snapshot);
+      return null;
+    }
+
+    return snapshot;
+  }
+
+  /**
+   * Returns the version of the table of an entity, to be read before its rows are loaded.
+   */
+  static long versionOf(final Entity entity) throws BlueprintException {
+    if (entity.hasSuperEntityClass() || !entity.hasIdentity() || !entity.getIdentity().hasField()) {
+      throw new BlueprintException("The cached entity " + entity.clazz.getName()
+          + " must declare its identity field and not extend another entity.");
+    }
+
+    QueryCache.track();
+    return QueryCache.versionOf(QueryCache.normalize(entity.getTable()));
+  }
+
+  static EntitySnapshot create(final Entity entity, final long version, final List<Object> rows)
+      throws BlueprintException {
+    try {
+      final EntitySnapshot snapshot = new EntitySnapshot(entity, version, rows);
+      snapshots.put(entity.clazz, snapshot);
+
+      return snapshot;
+    } catch (final IllegalAccessException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  static void remove(final Class<?> clazz) {
+    snapshots.remove(clazz);
+  }
+
+  Object get(final Object code) {
+    if (dense != null) {
+      final long index = ((Number) code).longValue() - offset;
+      return index >= 0 && index < dense.length ? dense[(int) index] : null;
+    }
+
+    return sparse.get(EngineUtil.identityKey(code));
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private boolean isCurrent() {
+    return QueryCache.versionOf(table) == version
+        && (expiresAt == 0 || System.nanoTime() - expiresAt < 0);
+  }
+
+  private static boolean isDenseType(final Class<?> type) {
+    return type == int.class || type == Integer.class || type == long.class
+        || type == Long.class || type == short.class || type == Short.class;
+  }
+}
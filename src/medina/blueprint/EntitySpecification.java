@@ -61,4 +61,7 @@ public interface EntitySpecification {
 
   Object getIdentityValue(Object instance) throws IllegalArgumentException, IllegalAccessException;
 
+  Object getValueOf(String label, Object instance) throws IllegalArgumentException,
+      IllegalAccessException;
+
 }
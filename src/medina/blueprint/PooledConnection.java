@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A physical connection owned by a {@link ConnectionPool}.
+ *
+ * <p>
+ * The prepared statements are cached with the connection rather than with the session, so a later
+ * session borrowing the same connection reuses the statements already prepared on the server. The
+ * same holds for the transaction settings last applied to the connection.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class PooledConnection {
+
+  final Connection connection;
+  final StatementCache statementCache;
+  final StatementCache keyStatementCache;
+  final ConnectionState state;
+
+  long releasedAt;
+
+  // Constructors____________________________________________________________________ //
+
+  PooledConnection(final Connection connection) {
+    this.connection = connection;
+    this.statementCache = new StatementCache(StatementCache.DEFAULT_CAPACITY);
+    this.keyStatementCache = new StatementCache(StatementCache.DEFAULT_CAPACITY);
+    this.state = new ConnectionState(connection);
+    this.releasedAt = System.nanoTime();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  void close() throws SQLException {
+    try {
+      statementCache.close();
+      keyStatementCache.close();
+    } finally {
+      connection.close();
+    }
+  }
+}
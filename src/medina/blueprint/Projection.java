@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import medina.blueprint.entity.EntityColumn;
+import medina.blueprint.entity.EntityID;
+
+/**
+ * The fields of a plain class that receives the columns of a projection query, matched by the
+ * <tt>@EntityColumn</tt> or <tt>@EntityID</tt> value when present or by the field name otherwise.
+ *
+ * @author Gabriel Giordano
+ */
+final class Projection {
+
+  private static final Map<Class<?>, Projection> projectionMap = new ConcurrentHashMap<>();
+
+  final Class<?> clazz;
+  final Field[] fields;
+  final Type[] genericTypes;
+  final String[] labels;
+
+  // Constructors____________________________________________________________________ //
+
+  private Projection(final Class<?> clazz) {
+    this.clazz = clazz;
+
+    final List<Field> fields = new ArrayList<>();
+
+    for (final Field field : clazz.getDeclaredFields()) {
+      if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+        field.setAccessible(true);
+        fields.add(field);
+      }
+    }
+
+    this.fields = fields.toArray(new Field[fields.size()]);
+    this.genericTypes = new Type[this.fields.length];
+    this.labels = new String[this.fields.length];
+
+    for (int index = 0; index < this.fields.length; ++index) {
+      labels[index] = searchLabel(this.fields[index]);
+      genericTypes[index] = EngineUtil.searchGenericType(this.fields[index]);
+    }
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  static Projection of(final Class<?> clazz) {
+    Projection projection = projectionMap.get(clazz);
+
+    if (projection == null) {
+      projection = new Projection(clazz);
+
+      final Projection previous = projectionMap.putIfAbsent(clazz, projection);
+
+      if (previous != null) {
+        projection = previous;
+      }
+    }
+
+    return projection;
+  }
+
+  Collection<String> getLabels(final Entity entity) {
+    final Collection<String> labels = new ArrayList<>();
+
+    for (final String label : this.labels) {
+      if (entity.getVariable(label) != null) {
+        labels.add(label);
+      }
+    }
+
+    return labels;
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static String searchLabel(final Field field) {
+    String label = null;
+
+    if (field.isAnnotationPresent(EntityColumn.class)) {
+      label = field.getAnnotation(EntityColumn.class).value();
+    } else if (field.isAnnotationPresent(EntityID.class)) {
+      label = field.getAnnotation(EntityID.class).value();
+    }
+
+    if (label == null || label.isEmpty()) {
+      label = field.getName();
+    }
+
+    return label;
+  }
+}
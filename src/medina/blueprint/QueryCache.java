@@ -0,0 +1,466 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.AbstractEntity.ListScope;
+import medina.blueprint.AbstractEntity.ObjectScope;
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.monitor.CacheType;
+import medina.blueprint.monitor.Monitors;
+
+/**
+ * A bounded cache of query results, keyed by the DAO, the SQL and the bound values, and invalidated
+ * by the writes to the tables the query reads.
+ *
+ * <p>
+ * A DAO using the cache declares the tables its queries read, which are the tables of its entity,
+ * of the entities it associates and any other given table. Every table has a version, increased
+ * when an insert, update, delete or batch of any DAO writes to it, and again when the transaction
+ * of the write ends. A result is only returned while the versions of its tables are those read
+ * before its query ran and its time to live has not elapsed. Writes made outside of the framework
+ * must be reported with {@link #invalidateTable(String)}.
+ * </p>
+ *
+ * <p>
+ * The cached objects are shared by every caller, so they must be treated as read-only. When the
+ * capacity is exceeded, the least recently used result is evicted. No table is tracked until a
+ * cache is created.
+ * </p>
+ *
+ * <pre>
+ * QueryCache cache = new QueryCache(1000, 60, TimeUnit.SECONDS);
+ * cityDao.setQueryCache(cache);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class QueryCache {
+
+  private static final int MAX_PARSED_STATEMENTS = 1024;
+  private static final String NO_TABLE = "";
+
+  private static final ConcurrentMap<String, AtomicLong> tableVersions;
+  private static final ConcurrentMap<String, String> writtenTables;
+  private static volatile boolean active;
+
+  private final ConcurrentMap<Key, Node> nodeMap;
+  private final Object evictionLock;
+
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private final LongAdder invalidations;
+  private final LongAdder expirations;
+
+  private volatile int capacity;
+  private volatile long timeToLive;
+
+  static {
+    tableVersions = new ConcurrentHashMap<>();
+    writtenTables = new ConcurrentHashMap<>();
+  }
+
+  // Constructors____________________________________________________________________ //
+
+  /**
+   * Creates a cache whose results live until their tables are written.
+   *
+   * @param capacity - the maximum of cached results.
+   */
+  public QueryCache(final int capacity) {
+    this(capacity, 0, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a cache whose results also expire after a time.
+   *
+   * @param capacity - the maximum of cached results.
+   * @param timeToLive - the time a result is kept, or zero to keep it until invalidated.
+   * @param unit - the unit of the time to live.
+   */
+  public QueryCache(final int capacity, final long timeToLive, final TimeUnit unit) {
+    nodeMap = new ConcurrentHashMap<>();
+    evictionLock = new Object();
+
+    hits = new LongAdder();
+    misses = new LongAdder();
+    evictions = new LongAdder();
+    invalidations = new LongAdder();
+    expirations = new LongAdder();
+
+    setCapacity(capacity);
+    setTimeToLive(timeToLive, unit);
+
+    active = true;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  /**
+   * Invalidates the cached results of every cache reading the given table.
+   *
+   * @param table - the name of the table.
+   */
+  public static void invalidateTable(final String table) {
+    final String name = normalize(table);
+    AtomicLong version = tableVersions.get(name);
+
+    if (version == null) {
+      final AtomicLong created = new AtomicLong();
+      version = tableVersions.putIfAbsent(name, created);
+
+      if (version == null) {
+        version = created;
+      }
+    }
+
+    version.incrementAndGet();
+  }
+
+  public void setCapacity(final int capacity) {
+    if (capacity < 1) {
+      throw new BlueprintException("The query cache capacity must be positive.");
+    }
+
+    this.capacity = capacity;
+
+    if (nodeMap.size() > capacity) {
+      evict();
+    }
+  }
+
+  public void setTimeToLive(final long timeToLive, final TimeUnit unit) {
+    if (timeToLive < 0) {
+      throw new BlueprintException("The query cache time to live must not be negative.");
+    }
+
+    this.timeToLive = unit.toNanos(timeToLive);
+  }
+
+  public void clear() {
+    nodeMap.clear();
+  }
+
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(nodeMap.size(), capacity, hits.sum(), misses.sum(),
+        evictions.sum());
+  }
+
+  /**
+   * Returns the results dropped because a table they read was written.
+   */
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Returns the results dropped because their time to live elapsed.
+   */
+  public long getExpirations() {
+    return expirations.sum();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  static boolean isActive() {
+    return active;
+  }
+
+  /**
+   * Starts tracking the written tables without creating a cache.
+   */
+  static void track() {
+    active = true;
+  }
+
+  static long versionOf(final String table) {
+    final AtomicLong version = tableVersions.get(table);
+    return version == null ? 0 : version.get();
+  }
+
+  static String normalize(final String table) {
+    final String name = table.substring(table.lastIndexOf('.') + 1);
+    return name.replaceAll("[`\"\\[\\]]", "").toLowerCase();
+  }
+
+  /**
+   * Returns the table written by an insert, update, delete, merge or batch of them, or null for
+   * the other statements.
+   */
+  static String tableOf(final String sql) {
+    String table = writtenTables.get(sql);
+
+    if (table == null) {
+      table = parseTable(sql);
+
+      if (writtenTables.size() < MAX_PARSED_STATEMENTS) {
+        writtenTables.put(sql, table);
+      }
+    }
+
+    return table == NO_TABLE ? null : table;
+  }
+
+  /**
+   * Returns the tables read by the queries of an entity, its own, those of its super entities and
+   * those of the entities it associates, followed by the declared ones.
+   */
+  static String[] tablesOf(final Entity entity, final String... declared) {
+    final Set<String> tables = new LinkedHashSet<>();
+    collectTables(entity, tables, new LinkedHashSet<Class<?>>());
+
+    for (final String table : declared) {
+      tables.add(normalize(table));
+    }
+
+    return tables.toArray(new String[tables.size()]);
+  }
+
+  /**
+   * Returns the key of a query of a DAO, where the shape tells the associations filled.
+   */
+  Key key(final Object owner, final String sql, final int shape,
+      final Collection<Object> values) {
+    return new Key(owner, sql, shape, values.isEmpty() ? Collections.emptyList()
+        : new ArrayList<>(values));
+  }
+
+  long[] versions(final String[] tables) {
+    final long[] versions = new long[tables.length];
+
+    for (int index = 0; index < tables.length; ++index) {
+      versions[index] = versionOf(tables[index]);
+    }
+
+    return versions;
+  }
+
+  List<Object> get(final Key key) {
+    final Node node = nodeMap.get(key);
+    List<Object> rows = null;
+
+    if (node != null) {
+      if (node.expiresAt != 0 && System.nanoTime() - node.expiresAt >= 0) {
+        nodeMap.remove(key, node);
+        expirations.increment();
+      } else if (!node.isCurrent()) {
+        nodeMap.remove(key, node);
+        invalidations.increment();
+      } else {
+        node.access = System.nanoTime();
+        rows = node.rows;
+      }
+    }
+
+    if (rows == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+
+    if (Monitors.isActive()) {
+      Monitors.cacheAccessed(CacheType.QUERY, rows != null);
+    }
+
+    return rows;
+  }
+
+  void put(final Key key, final String[] tables, final long[] versions,
+      final List<Object> rows) {
+    final long timeToLive = this.timeToLive;
+    final long expiresAt = timeToLive == 0 ? 0 : (System.nanoTime() + timeToLive) | 1;
+
+    nodeMap.put(key, new Node(Collections.unmodifiableList(new ArrayList<>(rows)), tables,
+        versions, expiresAt));
+
+    if (nodeMap.size() > capacity) {
+      evict();
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static void collectTables(final Entity entity, final Set<String> tables,
+      final Set<Class<?>> visited) {
+    if (!visited.add(entity.clazz)) {
+      return;
+    }
+
+    tables.add(normalize(entity.getTable()));
+
+    if (entity.hasSuperEntityClass()) {
+      collectTables(SessionManager.getEntity(entity.clazz.getSuperclass()), tables, visited);
+    }
+
+    if (entity.hasEntityObject()) {
+      for (final ObjectScope object : entity.getEntityObjects()) {
+        collectTables(SessionManager.getEntity(object.field.getType()), tables, visited);
+      }
+    }
+
+    if (entity.hasEntityList()) {
+      for (final ListScope list : entity.getEntityLists()) {
+        if (list.hasGenericType()) {
+          collectTables(SessionManager.getEntity((Class<?>) list.getGenericType()), tables,
+              visited);
+        }
+      }
+    }
+  }
+
+  private static String parseTable(final String sql) {
+    final String[] words = sql.trim().split("[\\s(]+", 4);
+
+    if (words.length < 2) {
+      return NO_TABLE;
+    }
+
+    final String command = words[0].toUpperCase();
+
+    if (command.equals("UPDATE")) {
+      return normalize(words[1]);
+    }
+
+    if (words.length < 3) {
+      return NO_TABLE;
+    }
+
+    final String clause = words[1].toUpperCase();
+
+    if ((command.equals("INSERT") || command.equals("MERGE") || command.equals("REPLACE"))
+        && clause.equals("INTO")) {
+      return normalize(words[2]);
+    }
+
+    if (command.equals("DELETE") && clause.equals("FROM")) {
+      return normalize(words[2]);
+    }
+
+    if (command.equals("TRUNCATE") && clause.equals("TABLE")) {
+      return normalize(words[2]);
+    }
+
+    return NO_TABLE;
+  }
+
+  private void evict() {
+    synchronized (evictionLock) {
+      while (nodeMap.size() > capacity) {
+        Key eldestKey = null;
+        long eldestAccess = Long.MAX_VALUE;
+
+        for (final Map.Entry<Key, Node> entry : nodeMap.entrySet()) {
+          if (entry.getValue().access < eldestAccess) {
+            eldestAccess = entry.getValue().access;
+            eldestKey = entry.getKey();
+          }
+        }
+
+        if (eldestKey == null || nodeMap.remove(eldestKey) == null) {
+          return;
+        }
+
+        evictions.increment();
+      }
+    }
+  }
+
+  // Package Inner Classes___________________________________________________________ //
+
+  static final class Key {
+
+    private final Object owner;
+    private final String sql;
+    private final int shape;
+    private final List<Object> values;
+    private final int hash;
+
+    private Key(final Object owner, final String sql, final int shape,
+        final List<Object> values) {
+      this.owner = owner;
+      this.sql = sql;
+      this.shape = shape;
+      this.values = values;
+
+      hash = ((System.identityHashCode(owner) * 31 + sql.hashCode()) * 31 + shape) * 31
+          + values.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+      if (!(object instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) object;
+
+      return owner == other.owner && hash == other.hash && shape == other.shape
+          && sql.equals(other.sql) && values.equals(other.values);
+    }
+
+    @Override
+    public String toString() {
+      return sql + " " + values;
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Node {
+
+    private final List<Object> rows;
+    private final String[] tables;
+    private final long[] versions;
+    private final long expiresAt;
+    private volatile long access;
+
+    private Node(final List<Object> rows, final String[] tables, final long[] versions,
+        final long expiresAt) {
+      this.rows = rows;
+      this.tables = tables;
+      this.versions = versions;
+      this.expiresAt = expiresAt;
+      this.access = System.nanoTime();
+    }
+
+    private boolean isCurrent() {
+      for (int index = 0; index < tables.length; ++index) {
+        if (versionOf(tables[index]) != versions[index]) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+  }
+}
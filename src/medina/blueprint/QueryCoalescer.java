@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Coalesces the identical queries executed at the same time by the read-only sessions of the DAOs
+ * using it, so they share a single execution.
+ *
+ * <p>
+ * The first thread to run a query with given bound values on a connection source executes it. When
+ * other threads asked for the same query meanwhile, it copies the rows into a
+ * <tt>CachedRowSet</tt> and hands each of them its own cursor over them. Otherwise it reads its
+ * result set as usual. A query arriving after the rows were handed runs again, since no result is
+ * kept. Queries inside of a transaction, of a session reading its own writes, and streamed queries
+ * are never coalesced, and a session never joins a query started before its last commit.
+ * </p>
+ *
+ * <p>
+ * Every coalesced result is copied in memory, so it is meant for the hot queries of small results
+ * under bursts of identical requests.
+ * </p>
+ *
+ * <pre>
+ * QueryCoalescer coalescer = new QueryCoalescer();
+ * cityDao.setQueryCoalescer(coalescer);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class QueryCoalescer {
+
+  private static final RowSetFactory rowSetFactory;
+
+  private final ConcurrentMap<List<Object>, Flight> flights;
+
+  private final LongAdder executions;
+  private final LongAdder joins;
+
+  static {
+    try {
+      rowSetFactory = RowSetProvider.newFactory();
+    } catch (final SQLException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  // Constructors____________________________________________________________________ //
+
+  public QueryCoalescer() {
+    flights = new ConcurrentHashMap<>();
+
+    executions = new LongAdder();
+    joins = new LongAdder();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  /**
+   * Returns the queries executed by a leading thread.
+   */
+  public long getExecutionCount() {
+    return executions.sum();
+  }
+
+  /**
+   * Returns the queries that waited for the execution of an identical one.
+   */
+  public long getJoinCount() {
+    return joins.sum();
+  }
+
+  public int getInFlightCount() {
+    return flights.size();
+  }
+
+  @Override
+  public String toString() {
+    return "executions=" + getExecutionCount() + ", joins=" + getJoinCount();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  /**
+   * Returns the flight of a query, led by the caller if no identical query is running on the same
+   * connection source, or if the running one started before the session committed its writes.
+   */
+  Flight join(final SessionManager session, final String sql, final Collection<Object> values) {
+    final List<Object> key = new ArrayList<>(values.size() + 2);
+    key.add(session.getConnectionSource());
+    key.add(sql);
+    key.addAll(values);
+
+    while (true) {
+      final Flight created = new Flight(key);
+      final Flight running = flights.putIfAbsent(key, created);
+
+      if (running == null) {
+        executions.increment();
+        return created;
+      }
+
+      if (!session.committedBefore(running.started)) {
+        // A flight left out of the map, so no other thread boards it.
+        executions.increment();
+        return new Flight(key);
+      }
+
+      if (running.board()) {
+        joins.increment();
+        return running;
+      }
+    }
+  }
+
+  // Package Inner Classes___________________________________________________________ //
+
+  final class Flight {
+
+    private static final int CLOSED = -1;
+
+    private final List<Object> key;
+    private final Thread leader;
+    private final long started;
+    private final CompletableFuture<CachedRowSet> rows;
+    private final AtomicInteger passengers;
+
+    private Flight(final List<Object> key) {
+      this.key = key;
+      this.leader = Thread.currentThread();
+      this.started = System.nanoTime();
+      this.rows = new CompletableFuture<>();
+      this.passengers = new AtomicInteger();
+    }
+
+    boolean isLeader() {
+      return leader == Thread.currentThread();
+    }
+
+    /**
+     * Hands the result set of the leader back as is when no thread joined the flight, or copies
+     * and closes it, handing the rows to the threads that did.
+     */
+    ResultSet land(final ResultSet resultSet) throws SQLException {
+      flights.remove(key, this);
+
+      if (passengers.compareAndSet(0, CLOSED)) {
+        return resultSet;
+      }
+
+      passengers.set(CLOSED);
+
+      final CachedRowSet cached;
+
+      try {
+        cached = rowSetFactory.createCachedRowSet();
+        cached.populate(resultSet);
+      } catch (final SQLException | RuntimeException e) {
+        fail(e);
+        throw e;
+      } finally {
+        resultSet.close();
+      }
+
+      rows.complete(cached);
+
+      return cursor(cached);
+    }
+
+    void fail(final Exception e) {
+      flights.remove(key, this);
+      passengers.set(CLOSED);
+      rows.completeExceptionally(e);
+    }
+
+    /**
+     * Joins the flight, unless its leader already landed.
+     */
+    private boolean board() {
+      while (true) {
+        final int count = passengers.get();
+
+        if (count == CLOSED) {
+          return false;
+        }
+
+        if (passengers.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Waits for the rows of the leader.
+     */
+    ResultSet await() throws SQLException {
+      try {
+        return cursor(rows.get());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BlueprintException(e);
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof SQLException) {
+          throw new SQLException(e.getCause().getMessage(),
+              ((SQLException) e.getCause()).getSQLState(), e.getCause());
+        }
+
+        throw new BlueprintException(e.getCause());
+      }
+    }
+
+    /**
+     * Returns a cursor of its own over the shared rows, whose closing leaves them untouched.
+     */
+    private ResultSet cursor(final CachedRowSet cached) throws SQLException {
+      final ResultSet shared = cached.createShared();
+
+      return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+          new Class<?>[] {ResultSet.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+                throws Throwable {
+              if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                return null;
+              }
+
+              try {
+                return method.invoke(shared, args);
+              } catch (final InvocationTargetException e) {
+                throw e.getCause();
+              }
+            }
+
+          });
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Routes the read-only work of sessions to replica connection pools.
+ *
+ * <p>
+ * Queries run outside a transaction are sent to a replica, chosen round-robin or by the least
+ * number of active connections, while transactions always run on the primary connection. After a
+ * commit, the session keeps reading from the primary for the stickiness period, so it reads its own
+ * writes even when the replicas are behind.
+ * </p>
+ *
+ * <pre>
+ * ReplicaRouter router = new ReplicaRouter(Strategy.LEAST_LOAD, replicaPool1, replicaPool2);
+ * SessionFactory factory = new SessionFactory(primaryPool, router);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see SessionFactory
+ */
+public final class ReplicaRouter {
+
+  public enum Strategy {
+    ROUND_ROBIN, LEAST_LOAD
+  }
+
+  private final ConnectionPool[] replicas;
+  private final Strategy strategy;
+  private final AtomicInteger next;
+
+  private volatile long stickiness;
+
+  // Constructors____________________________________________________________________ //
+
+  public ReplicaRouter(final Strategy strategy, final ConnectionPool... replicas) {
+    if (replicas.length == 0) {
+      throw new BlueprintException("At least one replica pool is needed.");
+    }
+
+    this.replicas = replicas.clone();
+    this.strategy = strategy;
+    this.next = new AtomicInteger();
+
+    stickiness = TimeUnit.SECONDS.toNanos(1);
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public void setStickiness(final long millis) {
+    this.stickiness = TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  public long getStickiness() {
+    return TimeUnit.NANOSECONDS.toMillis(stickiness);
+  }
+
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  public void close() throws BlueprintException {
+    for (final ConnectionPool replica : replicas) {
+      replica.close();
+    }
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  long getStickinessNanos() {
+    return stickiness;
+  }
+
+  ConnectionPool select() {
+    if (strategy == Strategy.LEAST_LOAD) {
+      ConnectionPool selected = null;
+
+      for (final ConnectionPool replica : replicas) {
+        if (replica.isClosed()) {
+          continue;
+        }
+
+        if (selected == null || replica.getActiveCount() < selected.getActiveCount()) {
+          selected = replica;
+        }
+      }
+
+      return selected;
+    }
+
+    for (int count = 0; count < replicas.length; ++count) {
+      final ConnectionPool replica =
+          replicas[(next.getAndIncrement() & Integer.MAX_VALUE) % replicas.length];
+
+      if (!replica.isClosed()) {
+        return replica;
+      }
+    }
+
+    return null;
+  }
+}
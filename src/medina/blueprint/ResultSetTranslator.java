@@ -30,12 +30,21 @@ class ResultSetTranslator {
 
   private Map<String, Integer> columnMapping;
   private ResultSet resultSet;
+  private String sql;
 
   ResultSetTranslator() {}
 
   void prepare(final ResultSet resultSet, final String sql) throws SQLException {
     this.resultSet = resultSet;
-    columnMapping = SessionManager.getColumnMapping(resultSet, sql);
+
+    if (columnMapping == null || !sql.equals(this.sql)) {
+      columnMapping = SessionManager.getColumnMapping(resultSet);
+      this.sql = sql;
+    }
+  }
+
+  void release() {
+    resultSet = null;
   }
 
   boolean hasColumn(final String column) {
@@ -202,33 +211,44 @@ class ResultSetTranslator {
 
     final int index = columnMapping.get(label);
 
-    final Class<?> type = variable.field.getType();
+    final Type genericType =
+        variable instanceof ColumnScope ? ((ColumnScope) variable).genericType : null;
 
-    Object result = translatePrimaryType(type, index);
+    final Object result = translate(variable.field.getType(), genericType, index);
 
     if (result != null) {
       variable.field.set(object, result);
-      return;
+    }
+  }
+
+  Object translate(final Class<?> type, final Type genericType, final int index)
+      throws SQLException {
+    Object result = translatePrimaryType(type, index);
+
+    if (result != null) {
+      return result;
     }
 
     result = translateOtherType(type, index);
 
     if (result != null) {
-      variable.field.set(object, result);
-      return;
+      return result;
     }
 
     if (type.isEnum() && EnumType.class.isAssignableFrom(type)) {
-      variable.field.set(object, translateEnumType(resultSet.getString(index), type));
-      return;
+      return translateEnumType(resultSet.getString(index), type);
     }
 
     if (type == SetType.class) {
-      variable.field.set(object,
-          translateSetType(resultSet.getString(index), ((ColumnScope) variable).genericType));
-      return;
+      return translateSetType(resultSet.getString(index), genericType);
     }
 
+    return null;
+  }
+
+  int indexOf(final String column) {
+    final Integer index = columnMapping.get(column.toLowerCase());
+    return index == null ? -1 : index;
   }
 
   @SuppressWarnings("unchecked")
@@ -1,42 +1,70 @@
 package medina.blueprint;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.HashMap;
 import java.util.Map;
 
+import medina.blueprint.dialect.Dialect;
 import medina.blueprint.exception.BlueprintException;
 import medina.blueprint.exception.TransactionException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+import medina.blueprint.session.RetryPolicy;
 import medina.blueprint.session.Transaction;
+import medina.blueprint.session.TransactionTemplate;
+import medina.blueprint.session.TransactionWork;
 
 public final class Session extends SessionManager {
 
+  private static final ThreadLocal<Session> boundSession = new ThreadLocal<>();
+
   private final Transaction transaction;
+  private final ConnectionPool pool;
+  private final PooledConnection pooled;
+  private final ConnectionState state;
+  private final Thread shutdownHook;
   private boolean isClosed;
-  
-  // Constructors____________________________________________________________________ //
 
-  {
-    Runtime.getRuntime().addShutdownHook(new Thread() {
+  private boolean transactional;
+  private boolean sticky;
+  private long stickyUntil;
 
-      @Override
-      public void run() {
-        super.run();
+  private boolean hasCommitted;
+  private long lastCommit;
 
-        if(!isClosed) {
-          System.err.println("\n    Ending unclosed session.");
-          end();
-        }
-      }
+  // Constructors____________________________________________________________________ //
 
-    });
-  }
-  
   public Session(final Connection connection) {
     super(connection);
     this.transaction = new SessionTransaction();
+    this.pool = null;
+    this.pooled = null;
+    this.state = new ConnectionState(connection);
+    this.shutdownHook = addShutdownHook();
+    begin();
+  }
+
+  public Session(final Connection connection, final Dialect dialect) {
+    super(connection, dialect);
+    this.transaction = new SessionTransaction();
+    this.pool = null;
+    this.pooled = null;
+    this.state = new ConnectionState(connection);
+    this.shutdownHook = addShutdownHook();
+    begin();
+  }
+
+  Session(final PooledConnection pooled, final ConnectionPool pool, final Dialect dialect,
+      final ReplicaRouter router) {
+    super(pooled.connection, dialect, pooled.statementCache, pooled.keyStatementCache);
+    this.transaction = new SessionTransaction();
+    this.pool = pool;
+    this.pooled = pooled;
+    this.state = pooled.state;
+    this.shutdownHook = null;
+    setReplicaRouter(router);
     begin();
   }
 
@@ -48,39 +76,172 @@ public final class Session extends SessionManager {
 
   public void begin() throws BlueprintException {
     try {
-      connection.setReadOnly(true);
+      state.setReadOnly(true);
     } catch (final SQLException e) {
       throw new BlueprintException(e);
     }
   }
 
   public void end() throws BlueprintException {
+    if (isClosed) {
+      return;
+    }
+
     try {
-      for (final PreparedStatement statement : statementMap.values()) {
-        statement.close();
+      if (pool == null) {
+        statementCache.close();
+        keyStatementCache.close();
       }
     } catch (final SQLException e) {
       throw new BlueprintException(e);
     } finally {
       try {
-        connection.close();
+        releaseReplica();
+        invalidateWrittenTables();
+
+        if (pool == null) {
+          connection.close();
+        } else {
+          release();
+        }
+
         isClosed = true;
       } catch (final SQLException e) {
         throw new BlueprintException(e);
       } finally {
-        statementMap.clear();
+        unbind();
+        removeShutdownHook();
       }
     }
   }
 
+  public boolean isPooled() {
+    return pool != null;
+  }
+
+  public void bind() {
+    boundSession.set(this);
+  }
+
+  public void unbind() {
+    if (boundSession.get() == this) {
+      boundSession.remove();
+    }
+  }
+
+  public static Session current() {
+    return boundSession.get();
+  }
+
   public Connection connection() {
+    state.invalidate();
     return connection;
   }
 
+  // Package Methods_________________________________________________________________ //
+
+  static Session getBound() {
+    return boundSession.get();
+  }
+
+  @Override
+  boolean isTransactional() {
+    return transactional;
+  }
+
+  @Override
+  Object getConnectionSource() {
+    return pool != null ? pool : connection;
+  }
+
+  @Override
+  boolean isReplicaReadable() {
+    if (transactional) {
+      return false;
+    }
+
+    if (sticky) {
+      if (System.nanoTime() - stickyUntil < 0) {
+        return false;
+      }
+
+      sticky = false;
+    }
+
+    return true;
+  }
+
+  @Override
+  boolean committedBefore(final long nanos) {
+    return !hasCommitted || lastCommit - nanos < 0;
+  }
+
+  @Override
+  void written() {
+    if (!transactional) {
+      recordCommit();
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void recordCommit() {
+    hasCommitted = true;
+    lastCommit = System.nanoTime();
+  }
+
+  private Thread addShutdownHook() {
+    final Thread hook = new Thread() {
+
+      @Override
+      public void run() {
+        super.run();
+
+        if (!isClosed) {
+          if (Loggers.isEnabled(Level.WARN)) {
+            Loggers.log(Level.WARN, "Ending unclosed session.");
+          }
+          end();
+        }
+      }
+
+    };
+
+    Runtime.getRuntime().addShutdownHook(hook);
+
+    return hook;
+  }
+
+  private void removeShutdownHook() {
+    if (shutdownHook == null || Thread.currentThread() == shutdownHook) {
+      return;
+    }
+
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (final IllegalStateException e) {
+      // the virtual machine is already shutting down
+    }
+  }
+
+  private void release() throws SQLException {
+    try {
+      if (!state.isAutoCommit()) {
+        connection.rollback();
+        state.setAutoCommit(true);
+      }
+    } catch (final SQLException e) {
+      connection.close();
+    } finally {
+      pool.release(pooled);
+    }
+  }
+
   private final class SessionTransaction implements Transaction {
 
     private boolean rolledBack;
     private boolean committed;
+    private boolean held;
     private int isolation;
 
     private final Map<Integer, Savepoint> savepoints;
@@ -105,11 +266,15 @@ public final class Session extends SessionManager {
     @Override
     public void begin() throws TransactionException {
       try {
-        System.err.println("	Beginning transaction.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Beginning transaction.");
+        }
+
+        state.setTransactionIsolation(isolation);
+        state.setReadOnly(false);
+        state.setAutoCommit(false);
 
-        connection.setTransactionIsolation(isolation);
-        connection.setReadOnly(false);
-        connection.setAutoCommit(false);
+        transactional = true;
 
         rolledBack = false;
         committed = false;
@@ -145,7 +310,9 @@ public final class Session extends SessionManager {
         connection.rollback();
         rolledBack = true;
 
-        System.err.println("	Transaction was rolled back.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Transaction was rolled back.");
+        }
       } catch (final SQLException e) {
         throw new BlueprintException(e);
       }
@@ -158,8 +325,10 @@ public final class Session extends SessionManager {
 
         rolledBack = true;
 
-        System.err.println("	Transaction was rolled back at" + " savepoint of index "
-            + savepointIndex + ".");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Transaction was rolled back at" + " savepoint of index "
+              + savepointIndex + ".");
+        }
       } catch (final SQLException e) {
         throw new BlueprintException(e);
       }
@@ -169,16 +338,24 @@ public final class Session extends SessionManager {
     public void end() throws TransactionException {
       try {
         if (wasRolledBack()) {
-          reset();
+          complete();
           return;
         }
 
         connection.commit();
         committed = true;
+        recordCommit();
 
-        reset();
+        if (getReplicaRouter() != null) {
+          sticky = true;
+          stickyUntil = System.nanoTime() + getReplicaRouter().getStickinessNanos();
+        }
+
+        complete();
 
-        System.err.println("	Transaction was successfully committed.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Transaction was successfully committed.");
+        }
       } catch (final SQLException e) {
         throw new TransactionException(e);
       }
@@ -194,12 +371,107 @@ public final class Session extends SessionManager {
       return committed;
     }
 
+    @Override
+    public <T> T execute(final TransactionWork<T> work) throws TransactionException {
+      begin();
+
+      try {
+        final T result = work.execute();
+        end();
+
+        return result;
+      } catch (final TransactionException | RuntimeException e) {
+        try {
+          rollback();
+        } catch (final RuntimeException suppressed) {
+          // the state is reset below, never committing the failed work
+          rolledBack = true;
+          e.addSuppressed(suppressed);
+        }
+
+        try {
+          end();
+        } catch (final TransactionException | RuntimeException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+
+        throw e;
+      }
+    }
+
+    @Override
+    public <T> T execute(final TransactionWork<T> work, final RetryPolicy retryPolicy)
+        throws TransactionException {
+      return retryPolicy.execute(this, work);
+    }
+
+    @Override
+    public TransactionTemplate template() throws TransactionException {
+      if (held) {
+        throw new TransactionException("A transaction template is already open.");
+      }
+
+      held = true;
+
+      return new SessionTransactionTemplate();
+    }
+
     // Private Methods_________________________________________________________________ //
 
+    /**
+     * Invalidates the tables written by the transaction once it is committed or rolled back, even
+     * while a template holds it open, since other sessions may have cached their previous rows.
+     */
+    private void complete() throws SQLException {
+      savepoints.clear();
+      invalidateWrittenTables();
+
+      if (!held) {
+        reset();
+      }
+    }
+
     private void reset() throws SQLException {
+      transactional = false;
       savepoints.clear();
-      connection.setAutoCommit(true);
-      connection.setReadOnly(true);
+      state.setAutoCommit(true);
+      state.setReadOnly(true);
+    }
+
+    // Private Inner Classes___________________________________________________________ //
+
+    private final class SessionTransactionTemplate implements TransactionTemplate {
+
+      private boolean closed;
+
+      // TransactionTemplate - Public Methods____________________________________________ //
+
+      @Override
+      public <T> T execute(final TransactionWork<T> work) throws TransactionException {
+        if (closed) {
+          throw new TransactionException("The transaction template is closed.");
+        }
+
+        return SessionTransaction.this.execute(work);
+      }
+
+      @Override
+      public void close() throws TransactionException {
+        if (closed) {
+          return;
+        }
+
+        closed = true;
+        held = false;
+
+        try {
+          if (transactional) {
+            reset();
+          }
+        } catch (final SQLException e) {
+          throw new TransactionException(e);
+        }
+      }
     }
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.SQLException;
+
+import medina.blueprint.dialect.Dialect;
+import medina.blueprint.dialect.Dialects;
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Opens sessions over the connections of a {@link ConnectionPool}.
+ *
+ * <p>
+ * Ending a session opened by a factory returns its connection to the pool instead of closing it.
+ * When a {@link ReplicaRouter} is given, the read-only work of the sessions is sent to replicas.
+ * </p>
+ *
+ * <pre>
+ * SessionFactory factory = new SessionFactory(new ConnectionPool(url, user, password, 2, 16));
+ *
+ * Session session = factory.openSession();
+ * // queries and transactions here
+ * session.end();
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see ConnectionPool
+ */
+public final class SessionFactory {
+
+  private final ConnectionPool pool;
+  private final ReplicaRouter router;
+  private volatile Dialect dialect;
+
+  // Constructors____________________________________________________________________ //
+
+  public SessionFactory(final ConnectionPool pool) {
+    this(pool, null, null);
+  }
+
+  public SessionFactory(final ConnectionPool pool, final Dialect dialect) {
+    this(pool, null, dialect);
+  }
+
+  public SessionFactory(final ConnectionPool pool, final ReplicaRouter router) {
+    this(pool, router, null);
+  }
+
+  public SessionFactory(final ConnectionPool pool, final ReplicaRouter router,
+      final Dialect dialect) {
+    this.pool = pool;
+    this.router = router;
+    this.dialect = dialect;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public Session openSession() throws BlueprintException {
+    final PooledConnection pooled = pool.acquire();
+
+    try {
+      return new Session(pooled, pool, getDialect(pooled), router);
+    } catch (final RuntimeException e) {
+      pool.release(pooled);
+      throw e;
+    }
+  }
+
+  public ConnectionPool getPool() {
+    return pool;
+  }
+
+  public ReplicaRouter getReplicaRouter() {
+    return router;
+  }
+
+  public void close() throws BlueprintException {
+    try {
+      pool.close();
+    } finally {
+      if (router != null) {
+        router.close();
+      }
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private Dialect getDialect(final PooledConnection pooled) {
+    if (dialect == null) {
+      try {
+        dialect = Dialects.resolve(pooled.connection.getMetaData());
+      } catch (final SQLException e) {
+        throw new BlueprintException(e);
+      }
+    }
+
+    return dialect;
+  }
+}
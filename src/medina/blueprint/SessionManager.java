@@ -16,20 +16,66 @@ package medina.blueprint;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import medina.blueprint.dialect.Dialect;
+import medina.blueprint.dialect.Dialects;
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.exception.RoundTripBudgetException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+import medina.blueprint.monitor.CacheType;
+import medina.blueprint.monitor.Monitors;
+import medina.blueprint.monitor.RoundTripBudget;
 
 abstract class SessionManager {
 
-  private static final Map<Class<?>, Entity> entityMap;
-  private static final Map<String, Map<String, Integer>> columnMap;
+  private static final ConcurrentMap<Class<?>, Entity> entityMap;
+  private static final ColumnMappingCache columnMappingCache;
+
+  private static final ClassValue<Entity> entityValue;
+  private static final Function<Class<?>, Entity> entityFactory;
+
+  private static final ThreadLocal<CallTrace> callTraces;
+  private static volatile RoundTripBudget callBudget;
 
   static {
-    entityMap = new HashMap<>();
-    columnMap = new HashMap<>();
+    entityMap = new ConcurrentHashMap<>();
+    columnMappingCache = new ColumnMappingCache(ColumnMappingCache.DEFAULT_CAPACITY);
+
+    callTraces = new ThreadLocal<CallTrace>() {
+
+      @Override
+      protected CallTrace initialValue() {
+        return new CallTrace();
+      }
+
+    };
+
+    entityFactory = new Function<Class<?>, Entity>() {
+
+      @Override
+      public Entity apply(final Class<?> clazz) {
+        return new Entity(clazz);
+      }
+
+    };
+
+    entityValue = new ClassValue<Entity>() {
+
+      @Override
+      protected Entity computeValue(final Class<?> clazz) {
+        return entityMap.computeIfAbsent(clazz, entityFactory);
+      }
+
+    };
 
     Runtime.getRuntime().addShutdownHook(new Thread() {
 
@@ -38,103 +84,395 @@ abstract class SessionManager {
         super.run();
 
         entityMap.clear();
-        columnMap.clear();
+        columnMappingCache.clear();
 
-        System.err.println("\n	Clearing resources, closing manager.");
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Clearing resources, closing manager.");
+        }
       }
 
     });
   }
 
-  protected final Map<String, PreparedStatement> statementMap;
+  protected final StatementCache statementCache;
+  protected final StatementCache keyStatementCache;
   protected final Connection connection;
+  protected final Dialect dialect;
+
+  private ReplicaRouter router;
+  private ConnectionPool replicaPool;
+  private PooledConnection replica;
+
+  private RoundTripBudget roundTripBudget;
+  private int roundTrips;
+
+  private Set<String> writtenTables;
 
   // Constructors____________________________________________________________________ //
 
   SessionManager(final Connection connection) {
+    this(connection, resolveDialect(connection));
+  }
+
+  SessionManager(final Connection connection, final Dialect dialect) {
+    this(connection, dialect, new StatementCache(StatementCache.DEFAULT_CAPACITY),
+        new StatementCache(StatementCache.DEFAULT_CAPACITY));
+  }
+
+  SessionManager(final Connection connection, final Dialect dialect,
+      final StatementCache statementCache, final StatementCache keyStatementCache) {
     this.connection = connection;
-    statementMap = new HashMap<String, PreparedStatement>();
+    this.dialect = dialect;
+    this.statementCache = statementCache;
+    this.keyStatementCache = keyStatementCache;
   }
 
   // Public Methods__________________________________________________________________ //
 
-  public final static synchronized Entity getEntity(final Class<?> clazz) {
-    if (entityMap.containsKey(clazz)) {
-      return entityMap.get(clazz);
+  public final Dialect getDialect() {
+    return dialect;
+  }
+
+  public final void setStatementCacheCapacity(final int capacity) throws BlueprintException {
+    try {
+      statementCache.setCapacity(capacity);
+      keyStatementCache.setCapacity(capacity);
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
     }
+  }
+
+  public final CacheStatistics getStatementCacheStatistics() {
+    return statementCache.getStatistics();
+  }
 
-    final Entity entity = new Entity(clazz);
-    entityMap.put(clazz, entity);
+  public final CacheStatistics getKeyStatementCacheStatistics() {
+    return keyStatementCache.getStatistics();
+  }
 
-    return entity;
+  public final void setReplicaRouter(final ReplicaRouter router) {
+    this.router = router;
   }
 
-  // Package Methods_________________________________________________________________ //
+  public final ReplicaRouter getReplicaRouter() {
+    return router;
+  }
 
-  final static synchronized Map<String, Integer> getColumnMapping(final ResultSet resultSet,
-      final String sql) throws SQLException {
-    if (columnMap.containsKey(sql)) {
-      return columnMap.get(sql);
-    }
+  public final void setRoundTripBudget(final RoundTripBudget budget) {
+    this.roundTripBudget = budget;
+  }
 
-    final Map<String, Integer> columnMapping = new HashMap<>();
+  public final RoundTripBudget getRoundTripBudget() {
+    return roundTripBudget;
+  }
 
-    final ResultSetMetaData metaData = resultSet.getMetaData();
+  public final int getRoundTrips() {
+    return roundTrips;
+  }
 
-    int count = metaData.getColumnCount() + 1;
-    while (count-- > 1) {
-      columnMapping.put(metaData.getColumnName(count).toLowerCase(), count);
+  public final void resetRoundTrips() {
+    roundTrips = 0;
+  }
+
+  public final static Entity getEntity(final Class<?> clazz) {
+    if (Monitors.isActive()) {
+      Monitors.cacheAccessed(CacheType.ENTITY, entityMap.containsKey(clazz));
     }
 
-    SessionManager.columnMap.put(sql, columnMapping);
+    return entityValue.get(clazz);
+  }
 
-    return columnMapping;
+  /**
+   * Limits the statements of every top level DAO call, including those filling its associations,
+   * checked before each statement runs. A null budget removes the limit.
+   */
+  public final static void setCallBudget(final RoundTripBudget budget) {
+    callBudget = budget;
   }
 
-  private final PreparedStatement getAutoGeneratedKeyStatement(final String sql)
-      throws SQLException {
+  public final static RoundTripBudget getCallBudget() {
+    return callBudget;
+  }
 
-    final PreparedStatement statement =
-        connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+  /**
+   * Discards the snapshot of an {@link medina.blueprint.entity.EntityCached} entity, so its table
+   * is loaded again by the next association filled from it.
+   */
+  public final static void refreshSnapshot(final Class<?> clazz) {
+    EntitySnapshot.remove(clazz);
+  }
 
-    statementMap.put(sql, statement);
+  public final static void setColumnMappingCapacity(final int capacity) {
+    columnMappingCache.setCapacity(capacity);
+  }
 
-    return statement;
+  public final static CacheStatistics getColumnMappingStatistics() {
+    return columnMappingCache.getStatistics();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  final static Map<String, Integer> getColumnMapping(final ResultSet resultSet)
+      throws SQLException {
+    return columnMappingCache.get(resultSet.getMetaData());
   }
 
   final PreparedStatement getAutoGeneratedKeyStatement(final String sql, final String[] columns)
       throws SQLException {
-    System.err.println("   SQL> " + sql);
+    if (Loggers.isEnabled(Level.DEBUG)) {
+      Loggers.log(Level.DEBUG, "SQL> " + sql);
+    }
+
+    PreparedStatement statement = keyStatementCache.get(sql);
 
-    if (statementMap.containsKey(sql)) {
-      return statementMap.get(sql);
+    if (statement != null) {
+      return statement;
     }
 
+    final boolean monitored = Monitors.isActive();
+
+    if (monitored) {
+      Monitors.preparing(sql);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
+
     if (columns == null) {
-      return getAutoGeneratedKeyStatement(sql);
+      statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    } else {
+      statement = connection.prepareStatement(sql, columns);
     }
 
-    final PreparedStatement statement = connection.prepareStatement(sql, columns);
+    if (monitored) {
+      Monitors.prepared(sql, System.nanoTime() - start);
+    }
 
-    statementMap.put(sql, statement);
+    keyStatementCache.put(sql, statement);
 
     return statement;
   }
 
   final PreparedStatement getStatement(final String sql) throws SQLException {
-    System.err.println("   SQL> " + sql);
+    if (Loggers.isEnabled(Level.DEBUG)) {
+      Loggers.log(Level.DEBUG, "SQL> " + sql);
+    }
+
+    return prepare(connection, statementCache, sql);
+  }
+
+  final PreparedStatement getQueryStatement(final String sql) throws SQLException {
+    if (router == null || !isReplicaReadable()) {
+      return getStatement(sql);
+    }
+
+    final PooledConnection replica = getReplica();
+
+    if (replica == null) {
+      return getStatement(sql);
+    }
 
-    if (statementMap.containsKey(sql)) {
-      return statementMap.get(sql);
+    if (Loggers.isEnabled(Level.DEBUG)) {
+      Loggers.log(Level.DEBUG, "SQL(replica)> " + sql);
     }
 
-    final PreparedStatement statement =
+    return prepare(replica.connection, replica.statementCache, sql);
+  }
+
+  final void countRoundTrip(final String sql) throws RoundTripBudgetException {
+    final RoundTripBudget callBudget = SessionManager.callBudget;
+
+    if (callBudget != null) {
+      final CallTrace trace = callTraces.get();
+
+      if (trace.depth > 0) {
+        callBudget.check("DAO call", ++trace.roundTrips, sql);
+      }
+    }
+
+    ++roundTrips;
+
+    if (roundTripBudget != null) {
+      roundTripBudget.check("session", roundTrips, sql);
+    }
+  }
+
+  static void callStarted() {
+    ++callTraces.get().depth;
+  }
+
+  static void callEnded() {
+    final CallTrace trace = callTraces.get();
+
+    if (trace.depth > 0 && --trace.depth == 0) {
+      trace.roundTrips = 0;
+    }
+  }
+
+  boolean isReplicaReadable() {
+    return false;
+  }
+
+  boolean isTransactional() {
+    return false;
+  }
+
+  /**
+   * Returns where the connection of this session comes from, telling apart the sessions reading
+   * different databases.
+   */
+  Object getConnectionSource() {
+    return connection;
+  }
+
+  /**
+   * Tells whether every write of this session was committed before the given time, as by
+   * <tt>System.nanoTime</tt>, so a query started then reads them.
+   */
+  boolean committedBefore(final long nanos) {
+    return true;
+  }
+
+  /**
+   * Called after a statement of this session wrote to the database.
+   */
+  void written() {}
+
+  final boolean readsCommittedPrimary() {
+    return !isTransactional() && (router == null || !isReplicaReadable());
+  }
+
+  /**
+   * Invalidates the cached queries reading the table written by the given statement. Inside of a
+   * transaction the table is invalidated again when it ends, since other sessions may cache its
+   * committed rows in the meantime.
+   */
+  final void tableWritten(final String sql) {
+    final String table = QueryCache.tableOf(sql);
+
+    if (table == null) {
+      return;
+    }
+
+    QueryCache.invalidateTable(table);
+
+    if (isTransactional()) {
+      if (writtenTables == null) {
+        writtenTables = new HashSet<>();
+      }
+
+      writtenTables.add(table);
+    }
+  }
+
+  final void invalidateWrittenTables() {
+    if (writtenTables == null || writtenTables.isEmpty()) {
+      return;
+    }
+
+    for (final String table : writtenTables) {
+      QueryCache.invalidateTable(table);
+    }
+
+    writtenTables.clear();
+  }
+
+  final void releaseReplica() {
+    if (replica != null) {
+      final PooledConnection released = replica;
+      replica = null;
+
+      replicaPool.release(released);
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static Dialect resolveDialect(final Connection connection) {
+    try {
+      return Dialects.resolve(connection.getMetaData());
+    } catch (final SQLException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  private PooledConnection getReplica() {
+    if (replica != null) {
+      return replica;
+    }
+
+    final ConnectionPool pool = router.select();
+
+    if (pool == null) {
+      return null;
+    }
+
+    try {
+      final PooledConnection pooled = pool.tryAcquire();
+
+      if (pooled == null) {
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Every replica connection is active, reading from the primary.");
+        }
+
+        return null;
+      }
+
+      try {
+        pooled.state.setReadOnly(true);
+      } catch (final SQLException e) {
+        pool.release(pooled);
+        throw new BlueprintException(e);
+      }
+
+      replicaPool = pool;
+      replica = pooled;
+
+      return replica;
+    } catch (final BlueprintException e) {
+      if (Loggers.isEnabled(Level.WARN)) {
+        Loggers.log(Level.WARN, "No replica connection is available, reading from the primary: "
+            + e.getMessage());
+      }
+
+      return null;
+    }
+  }
+
+  private static PreparedStatement prepare(final Connection connection,
+      final StatementCache statementCache, final String sql) throws SQLException {
+    PreparedStatement statement = statementCache.get(sql);
+
+    if (statement != null) {
+      return statement;
+    }
+
+    final boolean monitored = Monitors.isActive();
+
+    if (monitored) {
+      Monitors.preparing(sql);
+    }
+
+    final long start = monitored ? System.nanoTime() : 0;
+
+    statement =
         connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
             ResultSet.CLOSE_CURSORS_AT_COMMIT);
 
-    statementMap.put(sql, statement);
+    if (monitored) {
+      Monitors.prepared(sql, System.nanoTime() - start);
+    }
+
+    statementCache.put(sql, statement);
 
     return statement;
   }
 
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class CallTrace {
+
+    private int depth;
+    private int roundTrips;
+  }
 }
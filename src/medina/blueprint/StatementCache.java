@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.monitor.CacheType;
+import medina.blueprint.monitor.Monitors;
+
+/**
+ * A bounded cache of the prepared statements of a connection, ordered by the last access.
+ *
+ * <p>
+ * When the capacity is exceeded, the least recently used statement is closed and removed, so long
+ * lived sessions running dynamic SQL never exceed the open cursors limit of the database. It is
+ * confined to the thread of its session.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+final class StatementCache {
+
+  static final int DEFAULT_CAPACITY = 128;
+
+  private final Map<String, PreparedStatement> statementMap;
+
+  private int capacity;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  // Constructors____________________________________________________________________ //
+
+  StatementCache(final int capacity) {
+    statementMap = new LinkedHashMap<>(16, 0.75f, true);
+    this.capacity = checkCapacity(capacity);
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  PreparedStatement get(final String sql) {
+    final PreparedStatement statement = statementMap.get(sql);
+
+    if (statement == null) {
+      ++misses;
+    } else {
+      ++hits;
+    }
+
+    if (Monitors.isActive()) {
+      Monitors.cacheAccessed(CacheType.STATEMENT, statement != null);
+    }
+
+    return statement;
+  }
+
+  void put(final String sql, final PreparedStatement statement) throws SQLException {
+    statementMap.put(sql, statement);
+    evict();
+  }
+
+  /**
+   * Changes the capacity, closing at once the least recently used statements above it.
+   */
+  void setCapacity(final int capacity) throws SQLException {
+    this.capacity = checkCapacity(capacity);
+    evict();
+  }
+
+  int size() {
+    return statementMap.size();
+  }
+
+  void close() throws SQLException {
+    SQLException exception = null;
+
+    for (final PreparedStatement statement : statementMap.values()) {
+      try {
+        statement.close();
+      } catch (final SQLException e) {
+        exception = e;
+      }
+    }
+
+    statementMap.clear();
+
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  CacheStatistics getStatistics() {
+    return new CacheStatistics(statementMap.size(), capacity, hits, misses, evictions);
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static int checkCapacity(final int capacity) {
+    if (capacity < 1) {
+      throw new BlueprintException("The statement cache capacity must be positive.");
+    }
+
+    return capacity;
+  }
+
+  private void evict() throws SQLException {
+    SQLException exception = null;
+    final Iterator<PreparedStatement> iterator = statementMap.values().iterator();
+
+    while (statementMap.size() > capacity && iterator.hasNext()) {
+      final PreparedStatement eldest = iterator.next();
+      iterator.remove();
+      ++evictions;
+
+      try {
+        eldest.close();
+      } catch (final SQLException e) {
+        exception = e;
+      }
+    }
+
+    if (exception != null) {
+      throw exception;
+    }
+  }
+}
@@ -20,63 +20,82 @@ import java.util.LinkedHashSet;
 import java.util.List;
 
 import medina.blueprint.AbstractEntity.EntityListener;
+import medina.blueprint.dialect.Dialect;
+import medina.blueprint.dialect.Dialects;
 import medina.blueprint.exception.BlueprintException;
 import medina.blueprint.util.StatementBuilder;
 
+/**
+ * Builds the statements of an entity.
+ *
+ * <p>
+ * The clauses being built are kept per thread, so a tool shared by a DAO can build statements on
+ * many threads at once. The auto increment settings belong to the tool and are seen by all of
+ * them.
+ * </p>
+ *
+ * <p>
+ * A tool built without a dialect writes the Oracle sequence values, <tt>seq.NEXTVAL</tt>, as it
+ * always did. The tools of other databases take their dialect.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
 public abstract class StatementTool<E> implements StatementBuilder<E> {
 
-  private final Entity defaultEntity;
-  private final StringBuilder builder;
+  private static final Dialect DEFAULT_DIALECT = Dialects.resolve("Oracle");
 
-  private boolean delete;
-  private boolean select;
-  private final Collection<String> selectColumns;
-  private final List<String> insertColumns;
-  private final Collection<String> updateColumns;
-  private final Collection<String> whereColumns;
+  private final Entity defaultEntity;
+  private final Dialect dialect;
 
-  private String[] insertColumnsArray;
+  private final ThreadLocal<Clauses> clauses;
 
-  private boolean increment;
-  private String sequence;
+  private volatile boolean increment;
+  private volatile String sequence;
 
   StatementTool(final Entity entity) {
-    defaultEntity = entity;
+    this(entity, DEFAULT_DIALECT);
+  }
 
-    builder = new StringBuilder();
+  StatementTool(final Entity entity, final Dialect dialect) {
+    defaultEntity = entity;
+    this.dialect = dialect;
 
-    selectColumns = new LinkedHashSet<>();
-    insertColumns = new ArrayList<>();
-    updateColumns = new LinkedHashSet<>();
-    whereColumns = new LinkedHashSet<>();
+    clauses = newClauses();
   }
 
   StatementTool(final Class<?> clazz) {
     this(SessionManager.getEntity(clazz));
   }
 
+  StatementTool(final Class<?> clazz, final Dialect dialect) {
+    this(SessionManager.getEntity(clazz), dialect);
+  }
+
   public StatementTool() {
-    defaultEntity = SessionManager.getEntity(EngineUtil.resolveGenericType(getClass()));
+    this(DEFAULT_DIALECT);
+  }
 
-    builder = new StringBuilder();
+  public StatementTool(final Dialect dialect) {
+    defaultEntity = SessionManager.getEntity(EngineUtil.resolveGenericType(getClass()));
+    this.dialect = dialect;
 
-    selectColumns = new LinkedHashSet<>();
-    insertColumns = new ArrayList<>();
-    updateColumns = new LinkedHashSet<>();
-    whereColumns = new LinkedHashSet<>();
+    clauses = newClauses();
   }
 
-  private void reset() {
-    select = false;
-    delete = false;
+  private static ThreadLocal<Clauses> newClauses() {
+    return new ThreadLocal<Clauses>() {
+
+      @Override
+      protected Clauses initialValue() {
+        return new Clauses();
+      }
 
-    selectColumns.clear();
-    insertColumns.clear();
-    updateColumns.clear();
-    whereColumns.clear();
+    };
+  }
 
-    builder.setLength(0);
-    builder.trimToSize();
+  Dialect getDialect() {
+    return dialect;
   }
 
   @Override
@@ -86,8 +105,9 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
           + "only for auto increment insert generated statements.");
     }
 
-    final String[] insertColumns = insertColumnsArray;
-    insertColumnsArray = null;
+    final Clauses clauses = this.clauses.get();
+    final String[] insertColumns = clauses.insertColumnsArray;
+    clauses.insertColumnsArray = null;
 
     return insertColumns;
   }
@@ -115,19 +135,19 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
 
   @Override
   public StatementBuilder<E> select() {
-    select = true;
+    clauses.get().select = true;
     return this;
   }
 
   @Override
   public StatementBuilder<E> select(final String... columns) {
-    this.selectColumns.addAll(Arrays.asList(columns));
+    clauses.get().selectColumns.addAll(Arrays.asList(columns));
     return this;
   }
 
   @Override
   public StatementBuilder<E> where() {
-    whereColumns.add(defaultEntity.getIdentity().getLabel());
+    clauses.get().whereColumns.add(defaultEntity.getIdentity().getLabel());
     return this;
   }
 
@@ -143,18 +163,39 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
 
   @Override
   public StatementBuilder<E> where(final String... columns) {
-    whereColumns.addAll(Arrays.asList(columns));
+    clauses.get().whereColumns.addAll(Arrays.asList(columns));
+    return this;
+  }
+
+  @Override
+  public StatementBuilder<E> after() {
+    clauses.get().seek = true;
+    return this;
+  }
+
+  @Override
+  public StatementBuilder<E> after(final String column) {
+    final Clauses clauses = this.clauses.get();
+    clauses.seek = true;
+    clauses.seekColumn = column;
+    return this;
+  }
+
+  @Override
+  public StatementBuilder<E> orderBy(final String... columns) {
+    clauses.get().orderColumns.addAll(Arrays.asList(columns));
     return this;
   }
 
   @Override
   public StatementBuilder<E> insert() {
-    insertColumns.addAll(defaultEntity.getAllLabels());
+    clauses.get().insertColumns.addAll(defaultEntity.getAllLabels());
     return this;
   }
 
   @Override
   public Collection<Object> insert(final E instance) {
+    final List<String> insertColumns = clauses.get().insertColumns;
     final Collection<Object> values = new ArrayList<>();
 
     try {
@@ -186,18 +227,19 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
 
   @Override
   public StatementBuilder<E> insert(final String... columns) {
-    insertColumns.addAll(Arrays.asList(columns));
+    clauses.get().insertColumns.addAll(Arrays.asList(columns));
     return this;
   }
 
   @Override
   public StatementBuilder<E> update() {
-    updateColumns.addAll(defaultEntity.getAllLabels());
+    clauses.get().updateColumns.addAll(defaultEntity.getAllLabels());
     return this;
   }
 
   @Override
   public Collection<Object> update(final E instance) {
+    final Collection<String> updateColumns = clauses.get().updateColumns;
     final Collection<Object> values = new ArrayList<>();
 
     try {
@@ -221,39 +263,71 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
 
   @Override
   public StatementBuilder<E> update(final String... columns) {
-    insertColumns.addAll(Arrays.asList(columns));
+    clauses.get().insertColumns.addAll(Arrays.asList(columns));
     return this;
   }
 
   @Override
   public StatementBuilder<E> delete() {
-    delete = true;
+    clauses.get().delete = true;
     return this;
   }
 
+  @Override
+  public Object limit(final int limit) {
+    clauses.get().limit = true;
+    return limit;
+  }
+
+  @Override
+  public Collection<Object> limit(final int limit, final int offset) {
+    final Clauses clauses = this.clauses.get();
+    clauses.limit = true;
+    clauses.offset = true;
+
+    final Collection<Object> values = new ArrayList<>(2);
+
+    if (getDialect().isOffsetFirst()) {
+      values.add(offset);
+      values.add(limit);
+    } else {
+      values.add(limit);
+      values.add(offset);
+    }
+
+    return values;
+  }
+
   @Override
   public String prepare() {
-    if (checkSelect()) {
+    final Clauses clauses = this.clauses.get();
+
+    if (checkSelect(clauses)) {
       ;
-    } else if (checkInsert()) {
+    } else if (checkInsert(clauses)) {
       ;
-    } else if (checkUpdate()) {
+    } else if (checkUpdate(clauses)) {
       ;
-    } else if (checkDelete()) {
+    } else if (checkDelete(clauses)) {
       ;
     }
 
-    checkWhere();
+    checkWhere(clauses);
+    checkOrderBy(clauses);
+    checkLimit(clauses);
 
-    final String statement = builder.toString();
+    final String statement = clauses.builder.toString();
 
-    reset();
+    clauses.reset();
 
     return statement;
   }
 
-  private boolean checkSelect() {
-    if (select) {
+  private boolean checkSelect(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final Collection<String> selectColumns = clauses.selectColumns;
+
+    if (clauses.select) {
       builder.append("SELECT * FROM " + defaultEntity.getTable());
     } else if (!selectColumns.isEmpty()) {
       int index = 0;
@@ -275,7 +349,10 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
     return true;
   }
 
-  private boolean checkInsert() {
+  private boolean checkInsert(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final List<String> insertColumns = clauses.insertColumns;
+
     if (!insertColumns.isEmpty()) {
       builder.append("INSERT INTO " + defaultEntity.getTable());
 
@@ -284,10 +361,10 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
       if (increment && sequence == null) {
         if (insertColumns.contains(defaultEntity.getIdentity().getLabel())) {
           insertColumns.remove(defaultEntity.getIdentity().getLabel());
-          insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
+          clauses.insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
         } else {
           insertColumns.add(defaultEntity.getIdentity().getLabel());
-          insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
+          clauses.insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
           insertColumns.remove(defaultEntity.getIdentity().getLabel());
         }
       } else if (increment && sequence != null) {
@@ -296,7 +373,7 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
         }
 
         sequenceIndex = insertColumns.indexOf(defaultEntity.getIdentity().getLabel());
-        insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
+        clauses.insertColumnsArray = insertColumns.toArray(new String[insertColumns.size()]);
       }
 
       int index = 0;
@@ -315,13 +392,13 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
       for (index = 0; index < insertColumns.size(); ++index) {
         if (index == 0) {
           if (increment && sequence != null && index == sequenceIndex) {
-            builder.append(" (" + sequence + ".NEXTVAL");
+            builder.append(" (" + getDialect().getSequenceNextValue(sequence));
           } else {
             builder.append(" (?");
           }
         } else {
           if (increment && sequence != null && index == sequenceIndex) {
-            builder.append(", " + sequence + ".NEXTVAL");
+            builder.append(", " + getDialect().getSequenceNextValue(sequence));
           } else {
             builder.append(", ?");
           }
@@ -336,7 +413,10 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
     return true;
   }
 
-  private boolean checkUpdate() {
+  private boolean checkUpdate(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final Collection<String> updateColumns = clauses.updateColumns;
+
     if (!updateColumns.isEmpty()) {
       builder.append("UPDATE " + defaultEntity.getTable() + " SET ");
 
@@ -357,8 +437,10 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
     return true;
   }
 
-  private boolean checkDelete() {
-    if (delete) {
+  private boolean checkDelete(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+
+    if (clauses.delete) {
       builder.append("DELETE FROM " + defaultEntity.getTable());
     } else {
       return false;
@@ -367,7 +449,10 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
     return true;
   }
 
-  private boolean checkWhere() {
+  private boolean checkWhere(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final Collection<String> whereColumns = clauses.whereColumns;
+
     if (!whereColumns.isEmpty()) {
       int index = 0;
       for (final String column : whereColumns) {
@@ -379,6 +464,14 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
 
         ++index;
       }
+
+      if (clauses.seek) {
+        builder.append(" AND ");
+        checkSeek(clauses);
+      }
+    } else if (clauses.seek) {
+      builder.append(" WHERE ");
+      checkSeek(clauses);
     } else {
       return false;
     }
@@ -386,4 +479,102 @@ public abstract class StatementTool<E> implements StatementBuilder<E> {
     return true;
   }
 
+  private void checkSeek(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final String seekColumn = clauses.seekColumn;
+    final String identity = defaultEntity.getIdentity().getLabel();
+
+    if (seekColumn == null) {
+      builder.append(identity + " > ?");
+    } else {
+      builder.append("(" + seekColumn + " > ? OR (" + seekColumn + " = ? AND " + identity
+          + " > ?))");
+    }
+  }
+
+  private boolean checkOrderBy(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+    final Collection<String> orderColumns = clauses.orderColumns;
+
+    if (!orderColumns.isEmpty()) {
+      int index = 0;
+      for (final String column : orderColumns) {
+        if (index == 0) {
+          builder.append(" ORDER BY " + column);
+        } else {
+          builder.append(", " + column);
+        }
+
+        ++index;
+      }
+    } else {
+      return false;
+    }
+
+    return true;
+  }
+
+  private boolean checkLimit(final Clauses clauses) {
+    final StringBuilder builder = clauses.builder;
+
+    if (clauses.limit) {
+      builder.append(getDialect().getLimitClause(clauses.offset));
+    } else {
+      return false;
+    }
+
+    return true;
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Clauses {
+
+    private final StringBuilder builder;
+
+    private boolean delete;
+    private boolean select;
+    private final Collection<String> selectColumns;
+    private final List<String> insertColumns;
+    private final Collection<String> updateColumns;
+    private final Collection<String> whereColumns;
+
+    private String[] insertColumnsArray;
+
+    private boolean limit;
+    private boolean offset;
+
+    private boolean seek;
+    private String seekColumn;
+    private final Collection<String> orderColumns;
+
+    private Clauses() {
+      builder = new StringBuilder();
+
+      selectColumns = new LinkedHashSet<>();
+      insertColumns = new ArrayList<>();
+      updateColumns = new LinkedHashSet<>();
+      whereColumns = new LinkedHashSet<>();
+      orderColumns = new LinkedHashSet<>();
+    }
+
+    private void reset() {
+      select = false;
+      delete = false;
+      limit = false;
+      offset = false;
+      seek = false;
+      seekColumn = null;
+
+      selectColumns.clear();
+      insertColumns.clear();
+      updateColumns.clear();
+      whereColumns.clear();
+      orderColumns.clear();
+
+      builder.setLength(0);
+      builder.trimToSize();
+    }
+  }
+
 }
@@ -23,6 +23,10 @@ public interface DaoLayer<E> {
 
   List<E> list();
 
+  List<E> page(Object afterKey, int limit);
+
+  Iterable<List<E>> pages(int limit);
+
   <N extends Number> E search(N identity);
 
   E search(String identity);
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.dialect;
+
+/**
+ * Describes the database specific features used by the framework to pick the fastest statement
+ * strategy, like paging clauses, sequences, generated keys on batches and streaming result sets.
+ *
+ * <p>
+ * A dialect is chosen when a <tt>Session</tt> is created, or detected from the connection
+ * <tt>DatabaseMetaData</tt> through {@link Dialects#resolve(java.sql.DatabaseMetaData)}.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see Dialects
+ */
+public interface Dialect {
+
+  /**
+   * Returns the paging clause appended after the <tt>ORDER BY</tt> clause, using placeholders for
+   * the limit and the offset values.
+   *
+   * @param offset - if the clause should also skip rows.
+   * @return a clause starting with a space.
+   * @see #isOffsetFirst()
+   */
+  String getLimitClause(boolean offset);
+
+  /**
+   * Returns whether the offset placeholder comes before the limit placeholder on the clause returned
+   * by {@link #getLimitClause(boolean)}.
+   *
+   * @return true if the offset value must be bound first.
+   */
+  boolean isOffsetFirst();
+
+  /**
+   * Returns the expression that fetches the next value of a sequence inside a statement.
+   *
+   * @param sequence - the sequence name.
+   * @return the next value expression.
+   */
+  String getSequenceNextValue(String sequence);
+
+  /**
+   * Returns a standalone query that fetches the next value of a sequence.
+   *
+   * @param sequence - the sequence name.
+   * @return a query with a single row and a single column.
+   */
+  String getSequenceQuery(String sequence);
+
+  /**
+   * Returns whether the driver returns the generated keys of every row of an executed batch.
+   *
+   * @return true if generated keys are available after <tt>executeBatch()</tt>.
+   */
+  boolean supportsBatchGeneratedKeys();
+
+  /**
+   * Returns the fetch size that makes the driver stream rows instead of reading the whole result.
+   *
+   * @return the fetch size convention of the driver.
+   */
+  int getStreamingFetchSize();
+
+  /**
+   * Returns the maximum number of rows written by a single multi-row <tt>INSERT</tt> statement.
+   *
+   * @return the row limit, or 1 if multi-row inserts are not supported.
+   */
+  int getMaxInsertRows();
+
+  /**
+   * Returns the maximum number of values of a single <tt>IN</tt> list.
+   *
+   * @return the value limit of the list.
+   */
+  int getMaxInListSize();
+}
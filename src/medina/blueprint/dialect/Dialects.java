@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.dialect;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Resolves the {@link Dialect} of a database by its product name.
+ *
+ * @author Gabriel Giordano
+ * @see Dialect
+ */
+public final class Dialects {
+
+  private static final Dialect STANDARD = new StandardDialect();
+  private static final Dialect MYSQL = new MySQLDialect();
+  private static final Dialect POSTGRESQL = new PostgreSQLDialect();
+  private static final Dialect ORACLE = new OracleDialect();
+  private static final Dialect H2 = new H2Dialect();
+
+  private Dialects() {}
+
+  /**
+   * Returns the dialect used when the database is not recognized.
+   *
+   * @return the SQL:2008 dialect.
+   */
+  public static Dialect getDefault() {
+    return STANDARD;
+  }
+
+  /**
+   * Returns the dialect of the database described by the meta data.
+   *
+   * @param metaData - the connection meta data.
+   * @return the recognized dialect, or the default one.
+   * @throws SQLException if the product name could not be read.
+   */
+  public static Dialect resolve(final DatabaseMetaData metaData) throws SQLException {
+    return resolve(metaData.getDatabaseProductName());
+  }
+
+  /**
+   * Returns the dialect of a database product name.
+   *
+   * @param productName - the name returned by <tt>DatabaseMetaData.getDatabaseProductName()</tt>.
+   * @return the recognized dialect, or the default one.
+   */
+  public static Dialect resolve(final String productName) {
+    if (productName == null) {
+      return STANDARD;
+    }
+
+    final String name = productName.toLowerCase();
+
+    if (name.contains("mysql") || name.contains("mariadb")) {
+      return MYSQL;
+    }
+
+    if (name.contains("postgresql")) {
+      return POSTGRESQL;
+    }
+
+    if (name.contains("oracle")) {
+      return ORACLE;
+    }
+
+    if (name.equals("h2") || name.startsWith("hsql")) {
+      return H2;
+    }
+
+    return STANDARD;
+  }
+}
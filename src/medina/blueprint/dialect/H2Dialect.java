@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.dialect;
+
+/**
+ * The H2 and HSQLDB dialect.
+ *
+ * @author Gabriel Giordano
+ * @see Dialect
+ */
+public class H2Dialect extends StandardDialect {
+
+  @Override
+  public String getLimitClause(final boolean offset) {
+    if (offset) {
+      return " LIMIT ? OFFSET ?";
+    }
+
+    return " LIMIT ?";
+  }
+
+  @Override
+  public boolean isOffsetFirst() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsBatchGeneratedKeys() {
+    return true;
+  }
+
+  @Override
+  public int getMaxInsertRows() {
+    return 1000;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.dialect;
+
+/**
+ * The MySQL and MariaDB dialect.
+ *
+ * <p>
+ * The driver only streams rows with a fetch size of <tt>Integer.MIN_VALUE</tt> on forward only and
+ * read only statements, otherwise the whole result is read into memory.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see Dialect
+ */
+public class MySQLDialect extends StandardDialect {
+
+  @Override
+  public String getLimitClause(final boolean offset) {
+    if (offset) {
+      return " LIMIT ? OFFSET ?";
+    }
+
+    return " LIMIT ?";
+  }
+
+  @Override
+  public boolean isOffsetFirst() {
+    return false;
+  }
+
+  @Override
+  public String getSequenceNextValue(final String sequence) {
+    return "NEXTVAL(" + sequence + ")";
+  }
+
+  @Override
+  public String getSequenceQuery(final String sequence) {
+    return "SELECT " + getSequenceNextValue(sequence);
+  }
+
+  @Override
+  public boolean supportsBatchGeneratedKeys() {
+    return true;
+  }
+
+  @Override
+  public int getStreamingFetchSize() {
+    return Integer.MIN_VALUE;
+  }
+
+  @Override
+  public int getMaxInsertRows() {
+    return 1000;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.dialect;
+
+/**
+ * The SQL:2008 dialect, used when the database is not recognized.
+ *
+ * @author Gabriel Giordano
+ * @see Dialect
+ */
+public class StandardDialect implements Dialect {
+
+  private static final int DEFAULT_FETCH_SIZE = 100;
+  private static final int MAX_IN_LIST_SIZE = 1024;
+
+  // Dialect - Public Methods________________________________________________________ //
+
+  @Override
+  public String getLimitClause(final boolean offset) {
+    if (offset) {
+      return " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    return " FETCH FIRST ? ROWS ONLY";
+  }
+
+  @Override
+  public boolean isOffsetFirst() {
+    return true;
+  }
+
+  @Override
+  public String getSequenceNextValue(final String sequence) {
+    return "NEXT VALUE FOR " + sequence;
+  }
+
+  @Override
+  public String getSequenceQuery(final String sequence) {
+    return "VALUES (" + getSequenceNextValue(sequence) + ")";
+  }
+
+  @Override
+  public boolean supportsBatchGeneratedKeys() {
+    return false;
+  }
+
+  @Override
+  public int getStreamingFetchSize() {
+    return DEFAULT_FETCH_SIZE;
+  }
+
+  @Override
+  public int getMaxInsertRows() {
+    return 1;
+  }
+
+  @Override
+  public int getMaxInListSize() {
+    return MAX_IN_LIST_SIZE;
+  }
+}
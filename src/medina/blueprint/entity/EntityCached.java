@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the whole table of the entity is loaded once into a read-only snapshot, from which
+ * the {@link EntityObject} fields referencing it are filled without queries.
+ *
+ * <p>
+ * It is meant for small lookup tables. The snapshot is reloaded after any DAO writes to the table,
+ * after the refresh interval, if any, or when requested. The instances are shared by every
+ * associating object, so they must not be modified, and their own associations are not filled.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see EntityTable
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface EntityCached {
+
+  /**
+   * The seconds after which the snapshot is reloaded, or zero to keep it until its table is
+   * written.
+   */
+  long refresh() default 0;
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the messages of the calling threads over to a daemon thread that writes them to another
+ * logger, so the query threads never wait on I/O.
+ *
+ * <p>
+ * Messages are kept on a bounded ring buffer that the calling threads fill without locks. When the
+ * buffer is full, new messages are dropped and counted instead of blocking the caller.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class AsyncLogger implements BlueprintLogger {
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final BlueprintLogger delegate;
+
+  private final AtomicReferenceArray<Message> ring;
+  private final int mask;
+
+  private final AtomicLong tail;
+  private volatile long head;
+
+  private final LongAdder dropped;
+  private final Thread writer;
+
+  private volatile boolean running;
+
+  // Constructors____________________________________________________________________ //
+
+  /**
+   * Starts a logger with a ring buffer of the given size.
+   *
+   * @param delegate - the logger that writes the messages.
+   * @param capacity - the buffer size, rounded up to a power of two.
+   */
+  public AsyncLogger(final BlueprintLogger delegate, final int capacity) {
+    this.delegate = delegate;
+
+    final int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+    ring = new AtomicReferenceArray<>(size);
+    mask = size - 1;
+
+    tail = new AtomicLong();
+    dropped = new LongAdder();
+
+    running = true;
+
+    writer = new Thread("blueprint-async-logger") {
+
+      @Override
+      public void run() {
+        drain();
+      }
+
+    };
+
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  // BlueprintLogger - Public Methods________________________________________________ //
+
+  @Override
+  public boolean isEnabled(final Level level) {
+    return running && delegate.isEnabled(level);
+  }
+
+  @Override
+  public void log(final Level level, final String message) {
+    long sequence;
+
+    do {
+      sequence = tail.get();
+
+      if (sequence - head >= ring.length()) {
+        dropped.increment();
+        return;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+
+    ring.set((int) sequence & mask, new Message(level, message));
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Stops accepting messages, writes the buffered ones and stops the writer thread.
+   */
+  public void close() {
+    running = false;
+
+    try {
+      writer.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void drain() {
+    long sequence = head;
+
+    while (running || sequence < tail.get()) {
+      final int index = (int) sequence & mask;
+      final Message message = ring.get(index);
+
+      if (message == null) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+
+      ring.set(index, null);
+      head = ++sequence;
+
+      try {
+        delegate.log(message.level, message.text);
+      } catch (final RuntimeException e) {
+        dropped.increment();
+      }
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Message {
+
+    private final Level level;
+    private final String text;
+
+    private Message(final Level level, final String text) {
+      this.level = level;
+      this.text = text;
+    }
+  }
+}
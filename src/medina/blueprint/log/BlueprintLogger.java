@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+/**
+ * The logging SPI of the framework.
+ *
+ * <p>
+ * The framework always calls {@link #isEnabled(Level)} before building a message, so a disabled
+ * level costs a single call. Implementations may be called from several threads at once.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see Loggers
+ */
+public interface BlueprintLogger {
+
+  /**
+   * Returns whether messages of the given level are written.
+   *
+   * @param level - the level of the message.
+   * @return true if the message should be built and logged.
+   */
+  boolean isEnabled(Level level);
+
+  /**
+   * Writes a message.
+   *
+   * @param level - the level of the message.
+   * @param message - the message.
+   */
+  void log(Level level, String message);
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Appends the messages of a minimum level to a local file, one message per line.
+ *
+ * <p>
+ * Every message is written and flushed under a lock, so it should be wrapped by an
+ * {@link AsyncLogger} when used under load.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class FileLogger implements BlueprintLogger, Closeable {
+
+  private final BufferedWriter writer;
+  private final Level level;
+
+  // Constructors____________________________________________________________________ //
+
+  public FileLogger(final Path path, final Level level) throws BlueprintException {
+    try {
+      this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (final IOException e) {
+      throw new BlueprintException(e);
+    }
+
+    this.level = level;
+  }
+
+  // BlueprintLogger - Public Methods________________________________________________ //
+
+  @Override
+  public boolean isEnabled(final Level level) {
+    return this.level.accepts(level);
+  }
+
+  @Override
+  public synchronized void log(final Level level, final String message) {
+    try {
+      writer.write(message);
+      writer.newLine();
+      writer.flush();
+    } catch (final IOException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  @Override
+  public synchronized void close() throws BlueprintException {
+    try {
+      writer.close();
+    } catch (final IOException e) {
+      throw new BlueprintException(e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+/**
+ * The severity of a framework log message.
+ *
+ * @author Gabriel Giordano
+ * @see BlueprintLogger
+ */
+public enum Level {
+  TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+  /**
+   * Returns whether a message of the given level passes this minimum level.
+   *
+   * @param level - the level of the message.
+   * @return true if the message should be written.
+   */
+  public boolean accepts(final Level level) {
+    return this != OFF && level.ordinal() >= ordinal();
+  }
+}
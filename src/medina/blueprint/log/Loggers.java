@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+/**
+ * Holds the logger used by the framework, which writes nothing by default.
+ *
+ * <pre>
+ * Loggers.setLogger(new AsyncLogger(new PrintStreamLogger(Level.DEBUG), 8192));
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see BlueprintLogger
+ */
+public final class Loggers {
+
+  private static volatile BlueprintLogger logger = NoOpLogger.INSTANCE;
+
+  private Loggers() {}
+
+  public static void setLogger(final BlueprintLogger logger) {
+    Loggers.logger = logger == null ? NoOpLogger.INSTANCE : logger;
+  }
+
+  public static BlueprintLogger getLogger() {
+    return logger;
+  }
+
+  public static boolean isEnabled(final Level level) {
+    return logger.isEnabled(level);
+  }
+
+  public static void log(final Level level, final String message) {
+    logger.log(level, message);
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+/**
+ * The default logger, which writes nothing.
+ *
+ * @author Gabriel Giordano
+ */
+public final class NoOpLogger implements BlueprintLogger {
+
+  public static final NoOpLogger INSTANCE = new NoOpLogger();
+
+  private NoOpLogger() {}
+
+  @Override
+  public boolean isEnabled(final Level level) {
+    return false;
+  }
+
+  @Override
+  public void log(final Level level, final String message) {}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.log;
+
+import java.io.PrintStream;
+
+/**
+ * Writes the messages of a minimum level to a <tt>PrintStream</tt>, like <tt>System.err</tt>.
+ *
+ * <p>
+ * Every message is a synchronized write, so it should be wrapped by an {@link AsyncLogger} when
+ * used under load.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class PrintStreamLogger implements BlueprintLogger {
+
+  private final PrintStream stream;
+  private final Level level;
+
+  // Constructors____________________________________________________________________ //
+
+  public PrintStreamLogger(final Level level) {
+    this(System.err, level);
+  }
+
+  public PrintStreamLogger(final PrintStream stream, final Level level) {
+    this.stream = stream;
+    this.level = level;
+  }
+
+  // BlueprintLogger - Public Methods________________________________________________ //
+
+  @Override
+  public boolean isEnabled(final Level level) {
+    return this.level.accepts(level);
+  }
+
+  @Override
+  public void log(final Level level, final String message) {
+    stream.println(level + " " + message);
+  }
+}
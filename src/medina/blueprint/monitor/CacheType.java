@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+/**
+ * The framework caches whose accesses are reported to an {@link ExecutionListener}.
+ *
+ * <p>
+ * <tt>STATEMENT</tt> is the prepared statement cache of a connection, and <tt>ENTITY</tt> the
+ * registry of the mapped entity classes, <tt>QUERY</tt> a {@link medina.blueprint.QueryCache} of
+ * query results and <tt>SNAPSHOT</tt> the loaded tables of the
+ * {@link medina.blueprint.entity.EntityCached} entities.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public enum CacheType {
+
+  STATEMENT, ENTITY, QUERY, SNAPSHOT;
+
+}
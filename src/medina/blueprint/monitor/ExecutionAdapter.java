@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * An {@link ExecutionListener} ignoring every event, to be extended by the listeners interested
+ * in only some of them.
+ *
+ * @author Gabriel Giordano
+ */
+public abstract class ExecutionAdapter implements ExecutionListener {
+
+  @Override
+  public void callStarted() {}
+
+  @Override
+  public void callEnded() {}
+
+  @Override
+  public void preparing(final String sql) {}
+
+  @Override
+  public void prepared(final String sql, final long nanos) {}
+
+  @Override
+  public void executing(final String sql, final Operation operation) {}
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {}
+
+  @Override
+  public void failed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final SQLException exception) {}
+
+  @Override
+  public void fetched(final String sql, final Collection<Object> parameters,
+      final long rows, final long nanos) {}
+
+  @Override
+  public void hydrating(final String sql, final Class<?> entity) {}
+
+  @Override
+  public void hydrated(final String sql, final Class<?> entity, final long objects,
+      final long nanos) {}
+
+  @Override
+  public void associationsFilling(final Class<?> entity, final AssociationType type) {}
+
+  @Override
+  public void associationsFilled(final Class<?> entity, final AssociationType type,
+      final long associations, final long nanos) {}
+
+  @Override
+  public void filled(final long nanos) {}
+
+  @Override
+  public void cacheAccessed(final CacheType cache, final boolean hit) {}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Receives the statement executions of every session, once registered in {@link Monitors}.
+ *
+ * <p>
+ * The methods are called on the thread running the statement, so they must be fast and thread-safe.
+ * The work is announced when it starts, by <tt>preparing</tt>, <tt>executing</tt>,
+ * <tt>hydrating</tt> and <tt>associationsFilling</tt>, and reported with its time once it ends. A
+ * fetch starts when the execution of its query ends. The time of a fetch includes the hydration of
+ * the objects built from its rows, also reported on its own right before the fetch, once the result
+ * set is closed. The <tt>parameters</tt> are the values bound to the statement, the last row of a
+ * batch, and are only valid during the call, so a listener must neither modify nor keep them. A DAO
+ * call running queries is reported between <tt>callStarted</tt> and <tt>callEnded</tt>, which nest
+ * when a call runs inside another one on the same thread. An exception thrown by a listener is
+ * propagated to the caller of the DAO.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ * @see ExecutionAdapter
+ */
+public interface ExecutionListener {
+
+  void callStarted();
+
+  void callEnded();
+
+  void preparing(String sql);
+
+  void prepared(String sql, long nanos);
+
+  void executing(String sql, Operation operation);
+
+  void executed(String sql, Collection<Object> parameters, Operation operation, long nanos,
+      long rows);
+
+  void failed(String sql, Collection<Object> parameters, Operation operation, long nanos,
+      SQLException exception);
+
+  void fetched(String sql, Collection<Object> parameters, long rows, long nanos);
+
+  void hydrating(String sql, Class<?> entity);
+
+  void hydrated(String sql, Class<?> entity, long objects, long nanos);
+
+  void associationsFilling(Class<?> entity, AssociationType type);
+
+  void associationsFilled(Class<?> entity, AssociationType type, long associations, long nanos);
+
+  void filled(long nanos);
+
+  void cacheAccessed(CacheType cache, boolean hit);
+
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emits the work of the framework as Java Flight Recorder events, so a continuous recording
+ * attributes time to the statements and entities without an agent.
+ *
+ * <p>
+ * The preparation, execution and fetch of every statement, the hydration of the objects of every
+ * result set and every pass of the engine filling associations begin when the work starts and are
+ * committed when it ends, so their JFR duration is the time of the work. A fetch starts when the
+ * execution of its query ends, and a hydration spans from the first object of a result set to its
+ * closing, along with the reading of the rows. Statements are grouped by a shape id, the hash of
+ * their SQL. The events are only built while a recording has enabled them, and the framework does
+ * not read the clock until the listener is registered in {@link Monitors}.
+ * </p>
+ *
+ * <p>
+ * The events have a threshold of 10 ms by default, which keeps a continuous recording cheap, and
+ * may be changed by the settings of the recording.
+ * </p>
+ *
+ * <pre>
+ * Monitors.addListener(new FlightRecorderListener());
+ * </pre>
+ *
+ * <pre>
+ * java -XX:StartFlightRecording:filename=app.jfr ...
+ * jfr print --categories Blueprint app.jfr
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class FlightRecorderListener extends ExecutionAdapter {
+
+  private static final int MAX_OPEN_EVENTS = 64;
+
+  private static final EventType PREPARE = EventType.getEventType(PrepareEvent.class);
+  private static final EventType EXECUTE = EventType.getEventType(ExecuteEvent.class);
+  private static final EventType FETCH = EventType.getEventType(FetchEvent.class);
+  private static final EventType HYDRATE = EventType.getEventType(HydrateEvent.class);
+  private static final EventType ASSOCIATION = EventType.getEventType(AssociationEvent.class);
+
+  private final ThreadLocal<OpenEvents> openEvents;
+
+  // Constructors____________________________________________________________________ //
+
+  public FlightRecorderListener() {
+    openEvents = new ThreadLocal<OpenEvents>() {
+
+      @Override
+      protected OpenEvents initialValue() {
+        return new OpenEvents();
+      }
+
+    };
+  }
+
+  // ExecutionListener - Public Methods______________________________________________ //
+
+  @Override
+  public void callStarted() {
+    ++openEvents.get().depth;
+  }
+
+  @Override
+  public void callEnded() {
+    final OpenEvents open = openEvents.get();
+
+    if (--open.depth <= 0) {
+      open.depth = 0;
+      open.clear();
+    }
+  }
+
+  @Override
+  public void preparing(final String sql) {
+    if (PREPARE.isEnabled()) {
+      final PrepareEvent event = new PrepareEvent();
+      event.sql = sql;
+      event.shapeId = sql.hashCode();
+      openEvents.get().begin(event, sql);
+    }
+  }
+
+  @Override
+  public void prepared(final String sql, final long nanos) {
+    final PrepareEvent event = openEvents.get().end(PrepareEvent.class, sql);
+
+    if (event != null) {
+      event.commit();
+    }
+  }
+
+  @Override
+  public void executing(final String sql, final Operation operation) {
+    if (EXECUTE.isEnabled()) {
+      final ExecuteEvent event = new ExecuteEvent();
+      event.sql = sql;
+      event.shapeId = sql.hashCode();
+      event.operation = operation.name();
+      openEvents.get().begin(event, sql);
+    }
+  }
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    final OpenEvents open = openEvents.get();
+    final ExecuteEvent event = open.end(ExecuteEvent.class, sql);
+
+    if (event != null) {
+      event.rows = rows;
+      event.commit();
+    }
+
+    if (operation == Operation.QUERY && FETCH.isEnabled()) {
+      final FetchEvent fetch = new FetchEvent();
+      fetch.sql = sql;
+      fetch.shapeId = sql.hashCode();
+      open.begin(fetch, sql);
+    }
+  }
+
+  @Override
+  public void failed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final SQLException exception) {
+    final ExecuteEvent event = openEvents.get().end(ExecuteEvent.class, sql);
+
+    if (event != null) {
+      event.rows = -1;
+      event.sqlState = exception.getSQLState();
+      event.commit();
+    }
+  }
+
+  @Override
+  public void fetched(final String sql, final Collection<Object> parameters, final long rows,
+      final long nanos) {
+    final FetchEvent event = openEvents.get().end(FetchEvent.class, sql);
+
+    if (event != null) {
+      event.rows = rows;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void hydrating(final String sql, final Class<?> entity) {
+    if (HYDRATE.isEnabled()) {
+      final HydrateEvent event = new HydrateEvent();
+      event.entity = entity;
+      event.shapeId = sql.hashCode();
+      openEvents.get().begin(event, sql);
+    }
+  }
+
+  @Override
+  public void hydrated(final String sql, final Class<?> entity, final long objects,
+      final long nanos) {
+    final HydrateEvent event = openEvents.get().end(HydrateEvent.class, sql);
+
+    if (event != null) {
+      event.objects = objects;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void associationsFilling(final Class<?> entity, final AssociationType type) {
+    if (ASSOCIATION.isEnabled()) {
+      final AssociationEvent event = new AssociationEvent();
+      event.entity = entity;
+      event.type = type.name();
+      openEvents.get().begin(event, entity);
+    }
+  }
+
+  @Override
+  public void associationsFilled(final Class<?> entity, final AssociationType type,
+      final long associations, final long nanos) {
+    final AssociationEvent event = openEvents.get().end(AssociationEvent.class, entity);
+
+    if (event != null) {
+      event.associations = associations;
+      event.commit();
+    }
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  /**
+   * The events of a thread begun and not yet committed, the latest first. The events left open by
+   * a failure are dropped when the outermost call ends, or once there are too many of them.
+   */
+  private static final class OpenEvents {
+
+    private final ArrayDeque<Event> events = new ArrayDeque<>();
+    private final ArrayDeque<Object> keys = new ArrayDeque<>();
+
+    private int depth;
+
+    private void begin(final Event event, final Object key) {
+      if (events.size() == MAX_OPEN_EVENTS) {
+        events.removeLast();
+        keys.removeLast();
+      }
+
+      event.begin();
+      events.push(event);
+      keys.push(key);
+    }
+
+    private <T extends Event> T end(final Class<T> type, final Object key) {
+      final Iterator<Event> eventIterator = events.iterator();
+      final Iterator<Object> keyIterator = keys.iterator();
+
+      while (eventIterator.hasNext()) {
+        final Event event = eventIterator.next();
+        final Object eventKey = keyIterator.next();
+
+        if (event.getClass() == type && eventKey.equals(key)) {
+          eventIterator.remove();
+          keyIterator.remove();
+
+          return type.cast(event);
+        }
+      }
+
+      return null;
+    }
+
+    private void clear() {
+      events.clear();
+      keys.clear();
+    }
+  }
+
+  @Name("medina.blueprint.Prepare")
+  @Label("Statement Prepare")
+  @Category({"Blueprint", "Statement"})
+  @Threshold("10 ms")
+  @StackTrace(false)
+  static final class PrepareEvent extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Shape Id")
+    int shapeId;
+  }
+
+  @Name("medina.blueprint.Execute")
+  @Label("Statement Execute")
+  @Category({"Blueprint", "Statement"})
+  @Threshold("10 ms")
+  @StackTrace(false)
+  static final class ExecuteEvent extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Shape Id")
+    int shapeId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    @Description("The rows written, or -1 for queries and failures")
+    long rows;
+
+    @Label("SQL State")
+    @Description("The state of the failure, if the statement failed")
+    String sqlState;
+  }
+
+  @Name("medina.blueprint.Fetch")
+  @Label("Result Set Fetch")
+  @Description("The reading of the rows, including their hydration")
+  @Category({"Blueprint", "Statement"})
+  @Threshold("10 ms")
+  @StackTrace(false)
+  static final class FetchEvent extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Shape Id")
+    int shapeId;
+
+    @Label("Rows")
+    long rows;
+  }
+
+  @Name("medina.blueprint.Hydrate")
+  @Label("Object Hydration")
+  @Description("The hydration of the objects of a result set, from the first one to its closing")
+  @Category({"Blueprint", "Engine"})
+  @Threshold("10 ms")
+  @StackTrace(false)
+  static final class HydrateEvent extends Event {
+
+    @Label("Entity")
+    Class<?> entity;
+
+    @Label("Shape Id")
+    int shapeId;
+
+    @Label("Objects")
+    long objects;
+  }
+
+  @Name("medina.blueprint.Association")
+  @Label("Association Pass")
+  @Description("A pass filling associations, including the passes it started")
+  @Category({"Blueprint", "Engine"})
+  @Threshold("10 ms")
+  @StackTrace(false)
+  static final class AssociationEvent extends Event {
+
+    @Label("Entity")
+    @Description("The class declaring the associations")
+    Class<?> entity;
+
+    @Label("Type")
+    String type;
+
+    @Label("Associations")
+    long associations;
+  }
+}
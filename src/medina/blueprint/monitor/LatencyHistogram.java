@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds, with a bounded relative error.
+ *
+ * <p>
+ * Values are counted in log-linear buckets, in the manner of HDR histograms: every power of two is
+ * split into eight linear sub-buckets, so a percentile is reported within 12.5% of the recorded
+ * value, whatever its magnitude. Buckets are counted with <tt>LongAdder</tt>s created on their
+ * first use, so recording from many threads does not contend and an unused range takes no memory.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private static final LongBinaryOperator MAX = new LongBinaryOperator() {
+
+    @Override
+    public long applyAsLong(final long left, final long right) {
+      return Math.max(left, right);
+    }
+
+  };
+
+  private final AtomicReferenceArray<LongAdder> buckets;
+  private final LongAdder count;
+  private final LongAdder total;
+  private final LongAccumulator max;
+
+  // Constructors____________________________________________________________________ //
+
+  public LatencyHistogram() {
+    buckets = new AtomicReferenceArray<>(BUCKETS);
+    count = new LongAdder();
+    total = new LongAdder();
+    max = new LongAccumulator(MAX, 0);
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public void record(final long nanos) {
+    final long value = Math.max(nanos, 0);
+    final int index = indexOf(value);
+
+    LongAdder bucket = buckets.get(index);
+
+    if (bucket == null) {
+      buckets.compareAndSet(index, null, new LongAdder());
+      bucket = buckets.get(index);
+    }
+
+    bucket.increment();
+    count.increment();
+    total.add(value);
+    max.accumulate(value);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotal() {
+    return total.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getValueAtPercentile(final double percentile) {
+    final long[] counts = new long[BUCKETS];
+    final long recorded = readCounts(counts);
+
+    return valueAt(counts, recorded, percentile);
+  }
+
+  public LatencyStatistics getStatistics() {
+    final long[] counts = new long[BUCKETS];
+    final long recorded = readCounts(counts);
+
+    return new LatencyStatistics(recorded, total.sum(), valueAt(counts, recorded, 50),
+        valueAt(counts, recorded, 90), valueAt(counts, recorded, 99),
+        valueAt(counts, recorded, 99.9), max.get());
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private long readCounts(final long[] counts) {
+    long recorded = 0;
+
+    for (int index = 0; index < BUCKETS; ++index) {
+      final LongAdder bucket = buckets.get(index);
+
+      if (bucket != null) {
+        counts[index] = bucket.sum();
+        recorded += counts[index];
+      }
+    }
+
+    return recorded;
+  }
+
+  private long valueAt(final long[] counts, final long recorded, final double percentile) {
+    if (recorded == 0) {
+      return 0;
+    }
+
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+    long seen = 0;
+
+    for (int index = 0; index < BUCKETS; ++index) {
+      seen += counts[index];
+
+      if (seen >= rank) {
+        return Math.min(highestValueOf(index), max.get());
+      }
+    }
+
+    return max.get();
+  }
+
+  private static int indexOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  private static long highestValueOf(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKETS - 1;
+    final long sub = SUB_BUCKETS + index % SUB_BUCKETS;
+
+    return ((sub + 1) << shift) - 1;
+  }
+}
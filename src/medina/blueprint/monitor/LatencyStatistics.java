@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}, with the times in nanoseconds.
+ *
+ * @author Gabriel Giordano
+ */
+public final class LatencyStatistics {
+
+  private final long count;
+  private final long total;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  // Constructors____________________________________________________________________ //
+
+  LatencyStatistics(final long count, final long total, final long p50, final long p90,
+      final long p99, final long p999, final long max) {
+    this.count = count;
+    this.total = total;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotal() {
+    return total;
+  }
+
+  public long getMean() {
+    return count == 0 ? 0 : total / count;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public long getP90() {
+    return p90;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public long getP999() {
+    return p999;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + count + ", mean=" + micros(getMean()) + ", p50=" + micros(p50) + ", p90="
+        + micros(p90) + ", p99=" + micros(p99) + ", p999=" + micros(p999) + ", max="
+        + micros(max);
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static String micros(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+  }
+}
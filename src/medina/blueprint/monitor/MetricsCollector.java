@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import medina.blueprint.Session;
+import medina.blueprint.exception.BlueprintException;
+
+/**
+ * Gathers per statement metrics from the executions of every session.
+ *
+ * <p>
+ * Statements are grouped by their SQL shape, the text of the prepared statement, and for each one
+ * the calls, errors, rows read and written, fetch time and a latency histogram are kept. The
+ * collector also counts the hits of the statement and entity caches and the time spent filling
+ * the associations of the entities. All counters are <tt>LongAdder</tt>s, so sessions on many
+ * threads record without contending. Past the shape capacity, further shapes are grouped under
+ * <tt>(other)</tt>.
+ * </p>
+ *
+ * <pre>
+ * MetricsCollector metrics = new MetricsCollector();
+ * Monitors.addListener(metrics);
+ * metrics.registerMBean("default");
+ *
+ * MetricsSnapshot snapshot = metrics.snapshot();
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class MetricsCollector implements ExecutionListener {
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private static final String OTHER = "(other)";
+
+  private final ConcurrentMap<String, StatementMetrics> statements;
+  private final int capacity;
+
+  private volatile LatencyHistogram fillLatency;
+  private final LongAdder statementCacheHits;
+  private final LongAdder statementCacheMisses;
+  private final LongAdder entityCacheHits;
+  private final LongAdder entityCacheMisses;
+
+  private ObjectName objectName;
+
+  // Constructors____________________________________________________________________ //
+
+  public MetricsCollector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MetricsCollector(final int capacity) {
+    if (capacity < 1) {
+      throw new BlueprintException("The statement metrics capacity must be positive.");
+    }
+
+    this.capacity = capacity;
+
+    statements = new ConcurrentHashMap<>();
+    fillLatency = new LatencyHistogram();
+    statementCacheHits = new LongAdder();
+    statementCacheMisses = new LongAdder();
+    entityCacheHits = new LongAdder();
+    entityCacheMisses = new LongAdder();
+  }
+
+  // ExecutionListener - Public Methods______________________________________________ //
+
+  @Override
+  public void callStarted() {}
+
+  @Override
+  public void callEnded() {}
+
+  @Override
+  public void preparing(final String sql) {}
+
+  @Override
+  public void prepared(final String sql, final long nanos) {}
+
+  @Override
+  public void executing(final String sql, final Operation operation) {}
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    metricsOf(sql).recordExecution(nanos, rows);
+  }
+
+  @Override
+  public void failed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final SQLException exception) {
+    metricsOf(sql).recordError(nanos);
+  }
+
+  @Override
+  public void fetched(final String sql, final Collection<Object> parameters,
+      final long rows, final long nanos) {
+    metricsOf(sql).recordFetch(rows, nanos);
+  }
+
+  @Override
+  public void hydrating(final String sql, final Class<?> entity) {}
+
+  @Override
+  public void hydrated(final String sql, final Class<?> entity, final long objects,
+      final long nanos) {}
+
+  @Override
+  public void associationsFilling(final Class<?> entity, final AssociationType type) {}
+
+  @Override
+  public void associationsFilled(final Class<?> entity, final AssociationType type,
+      final long associations, final long nanos) {}
+
+  @Override
+  public void filled(final long nanos) {
+    fillLatency.record(nanos);
+  }
+
+  @Override
+  public void cacheAccessed(final CacheType cache, final boolean hit) {
+    if (cache == CacheType.STATEMENT) {
+      (hit ? statementCacheHits : statementCacheMisses).increment();
+    } else if (cache == CacheType.ENTITY) {
+      (hit ? entityCacheHits : entityCacheMisses).increment();
+    }
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public MetricsSnapshot snapshot() {
+    final List<StatementStatistics> statistics = new ArrayList<>(statements.size());
+
+    for (final StatementMetrics metrics : statements.values()) {
+      statistics.add(metrics.getStatistics());
+    }
+
+    Collections.sort(statistics, new Comparator<StatementStatistics>() {
+
+      @Override
+      public int compare(final StatementStatistics left, final StatementStatistics right) {
+        return Long.compare(right.getLatency().getTotal(), left.getLatency().getTotal());
+      }
+
+    });
+
+    return new MetricsSnapshot(statistics, fillLatency.getStatistics(), statementCacheHits.sum(),
+        statementCacheMisses.sum(), entityCacheHits.sum(), entityCacheMisses.sum(),
+        Session.getColumnMappingStatistics());
+  }
+
+  public void reset() {
+    statements.clear();
+    fillLatency = new LatencyHistogram();
+    statementCacheHits.reset();
+    statementCacheMisses.reset();
+    entityCacheHits.reset();
+    entityCacheMisses.reset();
+  }
+
+  public synchronized void registerMBean(final String name) throws BlueprintException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    try {
+      final ObjectName objectName =
+          new ObjectName("medina.blueprint:type=Metrics,name=" + ObjectName.quote(name));
+      server.registerMBean(new Metrics(), objectName);
+
+      this.objectName = objectName;
+    } catch (final JMException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  public synchronized void unregisterMBean() throws BlueprintException {
+    if (objectName == null) {
+      return;
+    }
+
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      objectName = null;
+    } catch (final JMException e) {
+      throw new BlueprintException(e);
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private StatementMetrics metricsOf(final String sql) {
+    StatementMetrics metrics = statements.get(sql);
+
+    if (metrics == null) {
+      final String shape = statements.size() < capacity ? sql : OTHER;
+      metrics = statements.get(shape);
+
+      if (metrics == null) {
+        final StatementMetrics created = new StatementMetrics(shape);
+        metrics = statements.putIfAbsent(shape, created);
+
+        if (metrics == null) {
+          metrics = created;
+        }
+      }
+    }
+
+    return metrics;
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private final class Metrics implements MetricsMXBean {
+
+    @Override
+    public StatementStatistics[] getStatements() {
+      final List<StatementStatistics> statistics = snapshot().getStatements();
+      return statistics.toArray(new StatementStatistics[statistics.size()]);
+    }
+
+    @Override
+    public LatencyStatistics getFillLatency() {
+      return fillLatency.getStatistics();
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+      return statementCacheHits.sum();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+      return statementCacheMisses.sum();
+    }
+
+    @Override
+    public double getStatementCacheHitRate() {
+      return MetricsSnapshot.rate(statementCacheHits.sum(), statementCacheMisses.sum());
+    }
+
+    @Override
+    public long getEntityCacheHits() {
+      return entityCacheHits.sum();
+    }
+
+    @Override
+    public long getEntityCacheMisses() {
+      return entityCacheMisses.sum();
+    }
+
+    @Override
+    public double getEntityCacheHitRate() {
+      return MetricsSnapshot.rate(entityCacheHits.sum(), entityCacheMisses.sum());
+    }
+
+    @Override
+    public double getColumnMappingHitRate() {
+      return Session.getColumnMappingStatistics().getHitRate();
+    }
+
+    @Override
+    public void reset() {
+      MetricsCollector.this.reset();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+/**
+ * The management interface of a {@link MetricsCollector}, exported through JMX by
+ * {@link MetricsCollector#registerMBean(String)}. The times are in nanoseconds.
+ *
+ * @author Gabriel Giordano
+ */
+public interface MetricsMXBean {
+
+  StatementStatistics[] getStatements();
+
+  LatencyStatistics getFillLatency();
+
+  long getStatementCacheHits();
+
+  long getStatementCacheMisses();
+
+  double getStatementCacheHitRate();
+
+  long getEntityCacheHits();
+
+  long getEntityCacheMisses();
+
+  double getEntityCacheHitRate();
+
+  double getColumnMappingHitRate();
+
+  void reset();
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.Collections;
+import java.util.List;
+
+import medina.blueprint.CacheStatistics;
+
+/**
+ * An immutable snapshot of the metrics gathered by a {@link MetricsCollector}.
+ *
+ * <p>
+ * The statements are ordered by the total time spent executing them, the most expensive first.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class MetricsSnapshot {
+
+  private final List<StatementStatistics> statements;
+  private final LatencyStatistics fillLatency;
+  private final long statementCacheHits;
+  private final long statementCacheMisses;
+  private final long entityCacheHits;
+  private final long entityCacheMisses;
+  private final CacheStatistics columnMapping;
+
+  // Constructors____________________________________________________________________ //
+
+  MetricsSnapshot(final List<StatementStatistics> statements,
+      final LatencyStatistics fillLatency, final long statementCacheHits,
+      final long statementCacheMisses, final long entityCacheHits, final long entityCacheMisses,
+      final CacheStatistics columnMapping) {
+    this.statements = Collections.unmodifiableList(statements);
+    this.fillLatency = fillLatency;
+    this.statementCacheHits = statementCacheHits;
+    this.statementCacheMisses = statementCacheMisses;
+    this.entityCacheHits = entityCacheHits;
+    this.entityCacheMisses = entityCacheMisses;
+    this.columnMapping = columnMapping;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public List<StatementStatistics> getStatements() {
+    return statements;
+  }
+
+  public StatementStatistics getStatement(final String sql) {
+    for (final StatementStatistics statement : statements) {
+      if (statement.getSql().equals(sql)) {
+        return statement;
+      }
+    }
+
+    return null;
+  }
+
+  public LatencyStatistics getFillLatency() {
+    return fillLatency;
+  }
+
+  public long getStatementCacheHits() {
+    return statementCacheHits;
+  }
+
+  public long getStatementCacheMisses() {
+    return statementCacheMisses;
+  }
+
+  public double getStatementCacheHitRate() {
+    return rate(statementCacheHits, statementCacheMisses);
+  }
+
+  public long getEntityCacheHits() {
+    return entityCacheHits;
+  }
+
+  public long getEntityCacheMisses() {
+    return entityCacheMisses;
+  }
+
+  public double getEntityCacheHitRate() {
+    return rate(entityCacheHits, entityCacheMisses);
+  }
+
+  public CacheStatistics getColumnMapping() {
+    return columnMapping;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("statementCache hits=" + statementCacheHits + ", misses="
+        + statementCacheMisses + "; entityCache hits=" + entityCacheHits + ", misses="
+        + entityCacheMisses + "; columnMapping " + columnMapping + "; fill " + fillLatency);
+
+    for (final StatementStatistics statement : statements) {
+      builder.append(System.lineSeparator()).append(statement);
+    }
+
+    return builder.toString();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  static double rate(final long hits, final long misses) {
+    final long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+}
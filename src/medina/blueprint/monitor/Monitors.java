@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Holds the execution listeners of the framework and dispatches the events to them.
+ *
+ * <p>
+ * While no listener is registered, the engine checks a single volatile flag and neither reads the
+ * clock nor builds any event, so monitoring costs nothing until it is used.
+ * </p>
+ *
+ * <pre>
+ * MetricsCollector metrics = new MetricsCollector();
+ * Monitors.addListener(metrics);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see ExecutionListener
+ */
+public final class Monitors {
+
+  private static volatile ExecutionListener[] listeners = new ExecutionListener[0];
+  private static volatile boolean active;
+
+  private Monitors() {}
+
+  // Public Methods__________________________________________________________________ //
+
+  public static synchronized void addListener(final ExecutionListener listener) {
+    final ExecutionListener[] current = listeners;
+    final ExecutionListener[] added = Arrays.copyOf(current, current.length + 1);
+    added[current.length] = listener;
+
+    listeners = added;
+    active = true;
+  }
+
+  public static synchronized void removeListener(final ExecutionListener listener) {
+    final ExecutionListener[] current = listeners;
+
+    for (int index = 0; index < current.length; ++index) {
+      if (current[index] == listener) {
+        final ExecutionListener[] removed = new ExecutionListener[current.length - 1];
+        System.arraycopy(current, 0, removed, 0, index);
+        System.arraycopy(current, index + 1, removed, index, removed.length - index);
+
+        listeners = removed;
+        active = removed.length > 0;
+
+        return;
+      }
+    }
+  }
+
+  public static boolean isActive() {
+    return active;
+  }
+
+  public static void callStarted() {
+    for (final ExecutionListener listener : listeners) {
+      listener.callStarted();
+    }
+  }
+
+  public static void callEnded() {
+    for (final ExecutionListener listener : listeners) {
+      listener.callEnded();
+    }
+  }
+
+  public static void preparing(final String sql) {
+    for (final ExecutionListener listener : listeners) {
+      listener.preparing(sql);
+    }
+  }
+
+  public static void prepared(final String sql, final long nanos) {
+    for (final ExecutionListener listener : listeners) {
+      listener.prepared(sql, nanos);
+    }
+  }
+
+  public static void executing(final String sql, final Operation operation) {
+    for (final ExecutionListener listener : listeners) {
+      listener.executing(sql, operation);
+    }
+  }
+
+  public static void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    for (final ExecutionListener listener : listeners) {
+      listener.executed(sql, parameters, operation, nanos, rows);
+    }
+  }
+
+  public static void failed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final SQLException exception) {
+    for (final ExecutionListener listener : listeners) {
+      listener.failed(sql, parameters, operation, nanos, exception);
+    }
+  }
+
+  public static void fetched(final String sql, final Collection<Object> parameters,
+      final long rows, final long nanos) {
+    for (final ExecutionListener listener : listeners) {
+      listener.fetched(sql, parameters, rows, nanos);
+    }
+  }
+
+  public static void hydrating(final String sql, final Class<?> entity) {
+    for (final ExecutionListener listener : listeners) {
+      listener.hydrating(sql, entity);
+    }
+  }
+
+  public static void hydrated(final String sql, final Class<?> entity, final long objects,
+      final long nanos) {
+    for (final ExecutionListener listener : listeners) {
+      listener.hydrated(sql, entity, objects, nanos);
+    }
+  }
+
+  public static void associationsFilling(final Class<?> entity, final AssociationType type) {
+    for (final ExecutionListener listener : listeners) {
+      listener.associationsFilling(entity, type);
+    }
+  }
+
+  public static void associationsFilled(final Class<?> entity, final AssociationType type,
+      final long associations, final long nanos) {
+    for (final ExecutionListener listener : listeners) {
+      listener.associationsFilled(entity, type, associations, nanos);
+    }
+  }
+
+  public static void filled(final long nanos) {
+    for (final ExecutionListener listener : listeners) {
+      listener.filled(nanos);
+    }
+  }
+
+  public static void cacheAccessed(final CacheType cache, final boolean hit) {
+    for (final ExecutionListener listener : listeners) {
+      listener.cacheAccessed(cache, hit);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements executed while it is registered, to assert query counts in tests.
+ *
+ * <pre>
+ * try (QueryCounter counter = QueryCounter.start()) {
+ *   cityDao.list();
+ *   counter.assertCount(2);
+ * }
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class QueryCounter extends ExecutionAdapter implements AutoCloseable {
+
+  private final ConcurrentMap<String, LongAdder> counts;
+  private final LongAdder total;
+
+  // Constructors____________________________________________________________________ //
+
+  public QueryCounter() {
+    counts = new ConcurrentHashMap<>();
+    total = new LongAdder();
+  }
+
+  // ExecutionListener - Public Methods______________________________________________ //
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    LongAdder count = counts.get(sql);
+
+    if (count == null) {
+      counts.putIfAbsent(sql, new LongAdder());
+      count = counts.get(sql);
+    }
+
+    count.increment();
+    total.increment();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public static QueryCounter start() {
+    final QueryCounter counter = new QueryCounter();
+    Monitors.addListener(counter);
+
+    return counter;
+  }
+
+  public long getCount() {
+    return total.sum();
+  }
+
+  public long getCount(final String sql) {
+    final LongAdder count = counts.get(sql);
+    return count == null ? 0 : count.sum();
+  }
+
+  public Map<String, Long> getCounts() {
+    final Map<String, Long> result = new HashMap<>();
+
+    for (final Map.Entry<String, LongAdder> entry : counts.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().sum());
+    }
+
+    return result;
+  }
+
+  public void assertCount(final long expected) {
+    final long count = getCount();
+
+    if (count != expected) {
+      throw new AssertionError("Expected " + expected + " statements but " + count
+          + " were executed: " + getCounts());
+    }
+  }
+
+  public void assertCount(final String sql, final long expected) {
+    final long count = getCount(sql);
+
+    if (count != expected) {
+      throw new AssertionError("Expected " + expected + " executions of " + sql + " but " + count
+          + " were made.");
+    }
+  }
+
+  public void reset() {
+    counts.clear();
+    total.reset();
+  }
+
+  @Override
+  public void close() {
+    Monitors.removeListener(this);
+  }
+}
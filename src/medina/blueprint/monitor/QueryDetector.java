@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+
+/**
+ * Detects the N+1 query pattern in the top level DAO calls.
+ *
+ * <p>
+ * The statements a call runs, including those of the associations filled by the engine, are
+ * counted by SQL shape on the thread of the call. When the call ends, a single key lookup, a
+ * shape with one placeholder compared for equality, run at least the repeat threshold of times is
+ * logged as a warning and counted in {@link #getDetections()}. An optional budget warns about the
+ * calls running too many statements; a failing budget must be set with
+ * <tt>Session.setCallBudget</tt>, which is checked before the statements run.
+ * </p>
+ *
+ * <pre>
+ * QueryDetector detector = new QueryDetector(10);
+ * detector.setCallBudget(new RoundTripBudget(100, RoundTripBudget.Action.WARN));
+ * Monitors.addListener(detector);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class QueryDetector extends ExecutionAdapter {
+
+  private final int threshold;
+  private volatile RoundTripBudget callBudget;
+
+  private final ThreadLocal<Trace> traces;
+  private final ConcurrentMap<String, LongAdder> detections;
+
+  // Constructors____________________________________________________________________ //
+
+  public QueryDetector() {
+    this(10);
+  }
+
+  public QueryDetector(final int threshold) {
+    this.threshold = threshold;
+
+    traces = new ThreadLocal<Trace>() {
+
+      @Override
+      protected Trace initialValue() {
+        return new Trace();
+      }
+
+    };
+
+    detections = new ConcurrentHashMap<>();
+  }
+
+  // ExecutionListener - Public Methods______________________________________________ //
+
+  @Override
+  public void callStarted() {
+    ++traces.get().depth;
+  }
+
+  @Override
+  public void callEnded() {
+    final Trace trace = traces.get();
+
+    if (trace.depth > 0 && --trace.depth == 0) {
+      inspect(trace);
+      trace.clear();
+    }
+  }
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    final Trace trace = traces.get();
+
+    if (trace.depth == 0) {
+      return;
+    }
+
+    final int[] count = trace.shapes.get(sql);
+
+    if (count == null) {
+      trace.shapes.put(sql, new int[] {1});
+    } else {
+      ++count[0];
+    }
+
+    ++trace.statements;
+
+    final RoundTripBudget budget = callBudget;
+
+    if (budget != null) {
+      budget.check("DAO call", trace.statements, sql);
+    }
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public void setCallBudget(final RoundTripBudget budget) {
+    if (budget != null && budget.getAction() == RoundTripBudget.Action.FAIL) {
+      throw new BlueprintException("A failing call budget must be set with Session.setCallBudget,"
+          + " so it is checked before the statements run.");
+    }
+
+    this.callBudget = budget;
+  }
+
+  public RoundTripBudget getCallBudget() {
+    return callBudget;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  public Map<String, Long> getDetections() {
+    final Map<String, Long> result = new HashMap<>();
+
+    for (final Map.Entry<String, LongAdder> entry : detections.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().sum());
+    }
+
+    return result;
+  }
+
+  public void reset() {
+    detections.clear();
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void inspect(final Trace trace) {
+    for (final Map.Entry<String, int[]> entry : trace.shapes.entrySet()) {
+      final int count = entry.getValue()[0];
+
+      if (count >= threshold && isKeyLookup(entry.getKey())) {
+        LongAdder detected = detections.get(entry.getKey());
+
+        if (detected == null) {
+          detections.putIfAbsent(entry.getKey(), new LongAdder());
+          detected = detections.get(entry.getKey());
+        }
+
+        detected.increment();
+
+        if (Loggers.isEnabled(Level.WARN)) {
+          Loggers.log(Level.WARN, "N+1 queries, " + entry.getKey() + " ran " + count
+              + " times in a call of " + trace.statements + " statements.");
+        }
+      }
+    }
+  }
+
+  private static boolean isKeyLookup(final String sql) {
+    final int placeholder = sql.indexOf('?');
+
+    return placeholder >= 0 && placeholder == sql.lastIndexOf('?')
+        && sql.regionMatches(true, 0, "SELECT", 0, 6) && sql.contains("= ?");
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Trace {
+
+    private final Map<String, int[]> shapes = new HashMap<>();
+    private int depth;
+    private int statements;
+
+    private void clear() {
+      shapes.clear();
+      statements = 0;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import medina.blueprint.exception.RoundTripBudgetException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+
+/**
+ * A limit on the statements executed in a scope, a session or a single DAO call.
+ *
+ * <p>
+ * Past the limit, the budget either logs a warning, once for the scope, or fails the statement
+ * with a {@link RoundTripBudgetException}.
+ * </p>
+ *
+ * <pre>
+ * session.setRoundTripBudget(new RoundTripBudget(200, RoundTripBudget.Action.FAIL));
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class RoundTripBudget {
+
+  public enum Action {
+    WARN, FAIL
+  }
+
+  private final int limit;
+  private final Action action;
+
+  // Constructors____________________________________________________________________ //
+
+  public RoundTripBudget(final int limit, final Action action) {
+    this.limit = limit;
+    this.action = action;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public Action getAction() {
+    return action;
+  }
+
+  public void check(final String scope, final int roundTrips, final String sql)
+      throws RoundTripBudgetException {
+    if (roundTrips <= limit) {
+      return;
+    }
+
+    if (action == Action.FAIL) {
+      throw new RoundTripBudgetException("The " + scope + " exceeded its budget of " + limit
+          + " round trips, running " + sql);
+    }
+
+    if (roundTrips == limit + 1 && Loggers.isEnabled(Level.WARN)) {
+      Loggers.log(Level.WARN, "The " + scope + " exceeded its budget of " + limit
+          + " round trips, running " + sql);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return action + " past " + limit + " round trips";
+  }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.log.AsyncLogger;
+import medina.blueprint.log.BlueprintLogger;
+import medina.blueprint.log.FileLogger;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+
+/**
+ * Logs the statements running longer than a threshold, with their bound values and row counts.
+ *
+ * <p>
+ * The time of a query is split between its execution, the reading of its rows and the hydration
+ * of the entities built from them by the engine, and the query is logged once its result set is
+ * closed. Updates, inserts and batches are logged when they return. A slow statement is kept with
+ * the sample rate probability and at most the rate limit of statements are logged per second, the
+ * others are only counted. Being a listener, it costs nothing until registered in
+ * {@link Monitors}.
+ * </p>
+ *
+ * <p>
+ * Each statement is written as a single warning line:
+ * </p>
+ *
+ * <pre>
+ * 1381234567890 QUERY total=12.345ms execute=10.100ms fetch=1.245ms hydrate=1.000ms rows=120 ...
+ * </pre>
+ *
+ * <pre>
+ * SlowQueryLog slowLog = new SlowQueryLog(100, Paths.get("slow-queries.log"));
+ * slowLog.setSampleRate(0.5);
+ * Monitors.addListener(slowLog);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ */
+public final class SlowQueryLog extends ExecutionAdapter implements AutoCloseable {
+
+  private static final int MAX_PARAMETERS = 16;
+  private static final int MAX_PARAMETER_LENGTH = 64;
+  private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int COUNT_BITS = 32;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+  private final long threshold;
+  private final BlueprintLogger logger;
+  private final FileLogger file;
+
+  private volatile double sampleRate;
+  private volatile int rateLimit;
+  private volatile boolean parametersLogged;
+
+  /** The second of the rate limit window in the high bits and its count in the low bits. */
+  private final AtomicLong window;
+
+  private final ThreadLocal<Pending> pending;
+
+  private final LongAdder logged;
+  private final LongAdder sampledOut;
+  private final LongAdder limited;
+
+  // Constructors____________________________________________________________________ //
+
+  /**
+   * Logs the slow statements to the logger of the framework.
+   *
+   * @param thresholdMillis - the time from which a statement is logged.
+   */
+  public SlowQueryLog(final long thresholdMillis) {
+    this(thresholdMillis, null, null);
+  }
+
+  /**
+   * Logs the slow statements to the given logger.
+   *
+   * @param thresholdMillis - the time from which a statement is logged.
+   * @param logger - the logger of the statements.
+   */
+  public SlowQueryLog(final long thresholdMillis, final BlueprintLogger logger) {
+    this(thresholdMillis, logger, null);
+  }
+
+  /**
+   * Appends the slow statements to a local file, written by a background thread.
+   *
+   * @param thresholdMillis - the time from which a statement is logged.
+   * @param path - the file of the statements, created if missing.
+   */
+  public SlowQueryLog(final long thresholdMillis, final Path path) throws BlueprintException {
+    this(thresholdMillis, new FileLogger(path, Level.WARN));
+  }
+
+  private SlowQueryLog(final long thresholdMillis, final FileLogger file) {
+    this(thresholdMillis, new AsyncLogger(file, 1024), file);
+  }
+
+  private SlowQueryLog(final long thresholdMillis, final BlueprintLogger logger,
+      final FileLogger file) {
+    this.threshold = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.logger = logger;
+    this.file = file;
+
+    sampleRate = 1;
+    rateLimit = 100;
+    parametersLogged = true;
+
+    window = new AtomicLong();
+
+    pending = new ThreadLocal<Pending>() {
+
+      @Override
+      protected Pending initialValue() {
+        return new Pending();
+      }
+
+    };
+
+    logged = new LongAdder();
+    sampledOut = new LongAdder();
+    limited = new LongAdder();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  /**
+   * Sets the probability of a slow statement being logged, one by default.
+   *
+   * @param sampleRate - a rate from zero to one.
+   */
+  public void setSampleRate(final double sampleRate) {
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new BlueprintException("Invalid sample rate " + sampleRate + ".");
+    }
+
+    this.sampleRate = sampleRate;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  /**
+   * Sets the maximum of statements logged per second, 100 by default and unlimited when zero.
+   *
+   * @param statements - the statements per second.
+   */
+  public void setRateLimit(final int statements) {
+    this.rateLimit = statements;
+  }
+
+  public int getRateLimit() {
+    return rateLimit;
+  }
+
+  /**
+   * Sets whether the bound values are logged, which may be turned off when they are sensitive.
+   *
+   * @param parametersLogged - true by default.
+   */
+  public void setParametersLogged(final boolean parametersLogged) {
+    this.parametersLogged = parametersLogged;
+  }
+
+  public long getThreshold() {
+    return TimeUnit.NANOSECONDS.toMillis(threshold);
+  }
+
+  public long getLoggedCount() {
+    return logged.sum();
+  }
+
+  public long getSampledOutCount() {
+    return sampledOut.sum();
+  }
+
+  public long getRateLimitedCount() {
+    return limited.sum();
+  }
+
+  /**
+   * Returns the statements dropped by the file writer because it could not keep up.
+   */
+  public long getDroppedCount() {
+    return logger instanceof AsyncLogger ? ((AsyncLogger) logger).getDroppedCount() : 0;
+  }
+
+  /**
+   * Writes the pending statements and closes the file, if any. It should be removed from
+   * {@link Monitors} before.
+   */
+  @Override
+  public void close() throws BlueprintException {
+    if (file != null) {
+      ((AsyncLogger) logger).close();
+      file.close();
+    }
+  }
+
+  // ExecutionListener - Public Methods______________________________________________ //
+
+  @Override
+  public void executed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final long rows) {
+    if (operation == Operation.QUERY) {
+      final Pending query = pending.get();
+      query.sql = sql;
+      query.nanos = nanos;
+    } else if (nanos >= threshold) {
+      log(sql, parameters, operation, nanos, -1, 0, rows, null);
+    }
+  }
+
+  @Override
+  public void failed(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long nanos, final SQLException exception) {
+    if (nanos >= threshold) {
+      log(sql, parameters, operation, nanos, -1, 0, -1, exception);
+    }
+  }
+
+  @Override
+  public void hydrated(final String sql, final Class<?> entity, final long objects,
+      final long nanos) {
+    final Pending query = pending.get();
+
+    if (query.sql == sql) {
+      query.hydration = nanos;
+    }
+  }
+
+  @Override
+  public void fetched(final String sql, final Collection<Object> parameters, final long rows,
+      final long nanos) {
+    final Pending query = pending.get();
+    final boolean executed = query.sql == sql;
+    final long execution = executed ? query.nanos : 0;
+    final long hydration = executed ? Math.min(query.hydration, nanos) : 0;
+    query.sql = null;
+    query.hydration = 0;
+
+    if (execution + nanos >= threshold) {
+      log(sql, parameters, Operation.QUERY, execution, nanos - hydration, hydration, rows, null);
+    }
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private void log(final String sql, final Collection<Object> parameters,
+      final Operation operation, final long execution, final long fetch, final long hydration,
+      final long rows, final SQLException exception) {
+    final BlueprintLogger logger = this.logger == null ? Loggers.getLogger() : this.logger;
+
+    if (!logger.isEnabled(Level.WARN)) {
+      return;
+    }
+
+    final double sampleRate = this.sampleRate;
+
+    if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      sampledOut.increment();
+      return;
+    }
+
+    if (!acquire()) {
+      limited.increment();
+      return;
+    }
+
+    final StringBuilder line = new StringBuilder(128 + sql.length());
+    line.append(System.currentTimeMillis()).append(' ').append(operation);
+
+    appendMillis(line.append(" total="), execution + Math.max(fetch, 0) + hydration);
+
+    if (fetch >= 0) {
+      appendMillis(line.append(" execute="), execution);
+      appendMillis(line.append(" fetch="), fetch);
+      appendMillis(line.append(" hydrate="), hydration);
+    }
+
+    if (rows >= 0) {
+      line.append(" rows=").append(rows);
+    }
+
+    if (exception != null) {
+      line.append(" error=").append(exception.getSQLState());
+    }
+
+    if (parametersLogged) {
+      appendParameters(line.append(" params="), parameters);
+    }
+
+    appendLine(line.append(" sql="), sql, sql.length());
+
+    logger.log(Level.WARN, line.toString());
+    logged.increment();
+  }
+
+  private boolean acquire() {
+    final int limit = rateLimit;
+
+    if (limit <= 0) {
+      return true;
+    }
+
+    final long second = System.nanoTime() / SECOND_NANOS & COUNT_MASK;
+
+    while (true) {
+      final long state = window.get();
+      final boolean current = state >>> COUNT_BITS == second;
+
+      if (current && (state & COUNT_MASK) >= limit) {
+        return false;
+      }
+
+      final long next = current ? state + 1 : second << COUNT_BITS | 1;
+
+      if (window.compareAndSet(state, next)) {
+        return true;
+      }
+    }
+  }
+
+  private static void appendMillis(final StringBuilder line, final long nanos) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    final long fraction = micros % 1000;
+
+    line.append(micros / 1000).append('.');
+
+    if (fraction < 100) {
+      line.append(fraction < 10 ? "00" : "0");
+    }
+
+    line.append(fraction).append("ms");
+  }
+
+  private static void appendLine(final StringBuilder line, final String text, final int length) {
+    for (int index = 0; index < length; ++index) {
+      final char character = text.charAt(index);
+      line.append(character == '\n' || character == '\r' ? ' ' : character);
+    }
+  }
+
+  private static void appendParameters(final StringBuilder line,
+      final Collection<Object> parameters) {
+    line.append('[');
+
+    int count = 0;
+
+    for (final Object parameter : parameters) {
+      if (count > 0) {
+        line.append(", ");
+      }
+
+      if (count++ == MAX_PARAMETERS) {
+        line.append("+").append(parameters.size() - MAX_PARAMETERS);
+        break;
+      }
+
+      if (parameter == null) {
+        line.append("NULL");
+      } else if (parameter instanceof byte[]) {
+        line.append('<').append(((byte[]) parameter).length).append(" bytes>");
+      } else if (parameter instanceof Number || parameter instanceof Boolean) {
+        line.append(parameter);
+      } else {
+        final String text = parameter.toString();
+
+        line.append('\'');
+        appendLine(line, text, Math.min(text.length(), MAX_PARAMETER_LENGTH));
+        line.append(text.length() > MAX_PARAMETER_LENGTH ? "...'" : "'");
+      }
+    }
+
+    line.append(']');
+  }
+
+  // Private Inner Classes___________________________________________________________ //
+
+  private static final class Pending {
+
+    private String sql;
+    private long nanos;
+    private long hydration;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live counters of one SQL shape, the text of a prepared statement with its placeholders.
+ *
+ * @author Gabriel Giordano
+ */
+final class StatementMetrics {
+
+  private final String sql;
+  private final LatencyHistogram latency;
+
+  private final LongAdder errors;
+  private final LongAdder rowsRead;
+  private final LongAdder rowsWritten;
+  private final LongAdder fetchTime;
+
+  // Constructors____________________________________________________________________ //
+
+  StatementMetrics(final String sql) {
+    this.sql = sql;
+
+    latency = new LatencyHistogram();
+    errors = new LongAdder();
+    rowsRead = new LongAdder();
+    rowsWritten = new LongAdder();
+    fetchTime = new LongAdder();
+  }
+
+  // Package Methods_________________________________________________________________ //
+
+  void recordExecution(final long nanos, final long rows) {
+    latency.record(nanos);
+
+    if (rows > 0) {
+      rowsWritten.add(rows);
+    }
+  }
+
+  void recordError(final long nanos) {
+    latency.record(nanos);
+    errors.increment();
+  }
+
+  void recordFetch(final long rows, final long nanos) {
+    rowsRead.add(rows);
+    fetchTime.add(nanos);
+  }
+
+  StatementStatistics getStatistics() {
+    return new StatementStatistics(sql, latency.getStatistics(), errors.sum(), rowsRead.sum(),
+        rowsWritten.sum(), fetchTime.sum());
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.monitor;
+
+/**
+ * An immutable snapshot of the metrics of one SQL shape.
+ *
+ * <p>
+ * The latency is the time spent executing the statement, while the fetch time is the time its
+ * result set was open, reading and hydrating the rows.
+ * </p>
+ *
+ * @author Gabriel Giordano
+ */
+public final class StatementStatistics {
+
+  private final String sql;
+  private final LatencyStatistics latency;
+  private final long errors;
+  private final long rowsRead;
+  private final long rowsWritten;
+  private final long fetchTime;
+
+  // Constructors____________________________________________________________________ //
+
+  StatementStatistics(final String sql, final LatencyStatistics latency, final long errors,
+      final long rowsRead, final long rowsWritten, final long fetchTime) {
+    this.sql = sql;
+    this.latency = latency;
+    this.errors = errors;
+    this.rowsRead = rowsRead;
+    this.rowsWritten = rowsWritten;
+    this.fetchTime = fetchTime;
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public String getSql() {
+    return sql;
+  }
+
+  public long getCalls() {
+    return latency.getCount();
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  public long getFetchTime() {
+    return fetchTime;
+  }
+
+  public LatencyStatistics getLatency() {
+    return latency;
+  }
+
+  @Override
+  public String toString() {
+    return sql + " [calls=" + getCalls() + ", errors=" + errors + ", rowsRead=" + rowsRead
+        + ", rowsWritten=" + rowsWritten + ", " + latency + "]";
+  }
+}
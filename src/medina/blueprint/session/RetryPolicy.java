@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.session;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import medina.blueprint.exception.BlueprintException;
+import medina.blueprint.exception.TransactionException;
+import medina.blueprint.log.Level;
+import medina.blueprint.log.Loggers;
+
+/**
+ * Retries the transactions that failed with a serialization failure or as a deadlock victim.
+ *
+ * <p>
+ * A failure is retryable when its cause chain holds a <tt>SQLTransactionRollbackException</tt>, an
+ * <tt>SQLException</tt> of the SQLState class <tt>40</tt> (<tt>40001</tt> serialization failure,
+ * <tt>40P01</tt> deadlock detected, but not <tt>40002</tt>), or one of the MySQL (<tt>1213</tt>, <tt>1205</tt>) and Oracle
+ * (<tt>8177</tt>, <tt>60</tt>) vendor codes for the same conditions. The transaction is rolled back
+ * and run again after a jittered exponential backoff, until the attempts or the time budget run
+ * out. A policy may be shared by many sessions, and it counts the attempts made through it.
+ * </p>
+ *
+ * <pre>
+ * RetryPolicy retryPolicy = new RetryPolicy(5, 10, 1000);
+ * session.transaction().execute(work, retryPolicy);
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see Transaction#execute(TransactionWork, RetryPolicy)
+ */
+public final class RetryPolicy {
+
+  private final int maxAttempts;
+  private final long initialBackoff;
+  private final long maxBackoff;
+
+  private volatile long budget;
+
+  private final LongAdder executions;
+  private final LongAdder attempts;
+  private final LongAdder retries;
+  private final LongAdder exhausted;
+  private final LongAdder backoffTime;
+
+  // Constructors____________________________________________________________________ //
+
+  public RetryPolicy() {
+    this(5, 10, 1000);
+  }
+
+  public RetryPolicy(final int maxAttempts, final long initialBackoff, final long maxBackoff) {
+    if (maxAttempts < 1 || initialBackoff < 0 || maxBackoff < initialBackoff) {
+      throw new BlueprintException("Invalid retry policy, " + maxAttempts + " attempts and "
+          + initialBackoff + "ms to " + maxBackoff + "ms of backoff.");
+    }
+
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+
+    budget = TimeUnit.SECONDS.toMillis(30);
+
+    executions = new LongAdder();
+    attempts = new LongAdder();
+    retries = new LongAdder();
+    exhausted = new LongAdder();
+    backoffTime = new LongAdder();
+  }
+
+  // Public Methods__________________________________________________________________ //
+
+  public <T> T execute(final Transaction transaction, final TransactionWork<T> work)
+      throws TransactionException {
+    final long start = System.nanoTime();
+
+    executions.increment();
+
+    for (int attempt = 1;; ++attempt) {
+      attempts.increment();
+
+      try {
+        return transaction.execute(work);
+      } catch (final TransactionException | RuntimeException e) {
+        if (!isRetryable(e)) {
+          throw e;
+        }
+
+        final long backoff = getBackoff(attempt);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (attempt >= maxAttempts || elapsed + backoff > budget) {
+          exhausted.increment();
+          throw e;
+        }
+
+        if (Loggers.isEnabled(Level.DEBUG)) {
+          Loggers.log(Level.DEBUG, "Transaction attempt " + attempt + " failed, retrying in "
+              + backoff + "ms: " + e.getMessage());
+        }
+
+        retries.increment();
+        backoffTime.add(backoff);
+
+        try {
+          Thread.sleep(backoff);
+        } catch (final InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          e.addSuppressed(interrupted);
+          throw e;
+        }
+      }
+    }
+  }
+
+  public boolean isRetryable(final Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTransactionRollbackException) {
+        return true;
+      }
+
+      if (cause instanceof SQLException) {
+        for (SQLException e = (SQLException) cause; e != null; e = e.getNextException()) {
+          if (isRetryable(e.getSQLState(), e.getErrorCode())) {
+            return true;
+          }
+        }
+      }
+    }
+
+    return false;
+  }
+
+  public void setBudget(final long millis) {
+    this.budget = millis;
+  }
+
+  public long getBudget() {
+    return budget;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getAttempts() {
+    return attempts.sum();
+  }
+
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  public long getExhausted() {
+    return exhausted.sum();
+  }
+
+  public long getBackoffTime() {
+    return backoffTime.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "executions=" + getExecutions() + ", attempts=" + getAttempts() + ", retries="
+        + getRetries() + ", exhausted=" + getExhausted() + ", backoffTime=" + getBackoffTime()
+        + "ms";
+  }
+
+  // Private Methods_________________________________________________________________ //
+
+  private static boolean isRetryable(final String state, final int code) {
+    if (state != null && state.startsWith("40")) {
+      return !"40002".equals(state); // a constraint violation fails again
+    }
+
+    switch (code) {
+      case 1213: // MySQL, deadlock found
+      case 1205: // MySQL, lock wait timeout
+      case 8177: // Oracle, can't serialize access
+        return true;
+      case 60: // Oracle, deadlock detected
+        return "61000".equals(state);
+      default:
+        return false;
+    }
+  }
+
+  private long getBackoff(final int attempt) {
+    final long ceiling = Math.min(maxBackoff, initialBackoff << Math.min(attempt - 1, 30));
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+}
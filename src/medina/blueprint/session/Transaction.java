@@ -43,4 +43,10 @@ public interface Transaction {
 
   boolean wasCommitted();
 
+  <T> T execute(TransactionWork<T> work) throws TransactionException;
+
+  <T> T execute(TransactionWork<T> work, RetryPolicy retryPolicy) throws TransactionException;
+
+  TransactionTemplate template() throws TransactionException;
+
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.session;
+
+import medina.blueprint.exception.TransactionException;
+
+/**
+ * Runs many short transactions on a connection kept in transactional mode.
+ *
+ * <p>
+ * Each {@link #execute(TransactionWork)} commits on success and rolls back on failure, but the
+ * connection is only switched back to auto-commit and read-only by {@link #close()}, saving the
+ * round trips of switching it for every transaction. Reads made while the template is open run on
+ * the primary connection.
+ * </p>
+ *
+ * <pre>
+ * TransactionTemplate template = session.transaction().template();
+ *
+ * try {
+ *   for (City city : cities) {
+ *     template.execute(new TransactionWork&lt;Void&gt;() {...});
+ *   }
+ * } finally {
+ *   template.close();
+ * }
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @see Transaction#template()
+ */
+public interface TransactionTemplate extends AutoCloseable {
+
+  <T> T execute(TransactionWork<T> work) throws TransactionException;
+
+  @Override
+  void close() throws TransactionException;
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2013 Gabriel Giordano
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package medina.blueprint.session;
+
+import medina.blueprint.exception.TransactionException;
+
+/**
+ * A unit of work run inside a transaction by {@link Transaction#execute(TransactionWork)} or by a
+ * {@link TransactionTemplate}.
+ *
+ * <pre>
+ * Long count = session.transaction().execute(new TransactionWork&lt;Long&gt;() {
+ *
+ *   public Long execute() {
+ *     dao.save(city);
+ *     return dao.count();
+ *   }
+ * });
+ * </pre>
+ *
+ * @author Gabriel Giordano
+ * @param <T> the type of the result.
+ */
+public interface TransactionWork<T> {
+
+  T execute() throws TransactionException;
+
+}
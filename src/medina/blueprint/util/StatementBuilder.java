@@ -35,6 +35,12 @@ public interface StatementBuilder<E> {
 
   StatementBuilder<E> where(String... columns);
 
+  StatementBuilder<E> after();
+
+  StatementBuilder<E> after(String column);
+
+  StatementBuilder<E> orderBy(String... columns);
+
   StatementBuilder<E> insert();
 
   Collection<Object> insert(E instance);
@@ -51,6 +57,10 @@ public interface StatementBuilder<E> {
 
   StatementBuilder<E> delete();
 
+  Object limit(int limit);
+
+  Collection<Object> limit(int limit, int offset);
+
   String prepare();
 
 }